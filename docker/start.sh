@@ -0,0 +1,34 @@
+#!/bin/sh
+# Starts Paperless from the extracted jar layers (see Dockerfile), with the Spring AOT initializers and, once
+# trained, the CDS archive.
+#   start.sh [args]   run the server; JAVA_OPTS and application arguments are passed through
+#   start.sh train    start the context without a database, exit after refresh and write the CDS archive
+# SPRING_AOT=false runs a jar built without -Paot; CDS_ARCHIVE=none skips the archive; EXTRA_CLASSPATH adds jars
+# (agents, drivers) after the application's, where they do not invalidate the archive.
+set -e
+cd "$(dirname "$0")"
+
+MAIN=com.college.paperless.PaperlessApplication
+ARCHIVE=${CDS_ARCHIVE:-app.jsa}
+# Jars only and in a fixed order: CDS rejects directories and any class path that differs from the training run
+CLASSPATH="application.jar:$(sed -n 's/^- "\(.*\)"$/\1/p' BOOT-INF/classpath.idx | paste -sd: -)"
+CLASSPATH="$CLASSPATH${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}"
+OPTS="-Dspring.aot.enabled=${SPRING_AOT:-true}"
+
+if [ "$1" = "train" ]; then
+    shift
+    exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.context.exit=onRefresh $OPTS $JAVA_OPTS \
+        -cp "$CLASSPATH" $MAIN \
+        --spring.jpa.hibernate.ddl-auto=none \
+        --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+        --paperless.migration.enabled=false \
+        --paperless.jobs.enabled=false \
+        --paperless.scheduler.enabled=false \
+        --paperless.audit.dir=/tmp/cds-training-audit \
+        "$@"
+fi
+
+if [ -f "$ARCHIVE" ]; then
+    OPTS="$OPTS -XX:SharedArchiveFile=$ARCHIVE"
+fi
+exec java $OPTS $JAVA_OPTS -cp "$CLASSPATH" $MAIN "$@"
@@ -0,0 +1,59 @@
+#!/bin/sh
+# Startup time of each packaging variant: Spring Boot's "process running for", i.e. JVM launch to ready.
+#   mvn -Paot -DskipTests package && docker/startup-benchmark.sh [runs] [application args]
+# Uses the configured database (DB_URL, DB_USERNAME, DB_PASSWORD); DDL_AUTO=none leaves out the schema diff.
+# An embedded database works too: EXTRA_CLASSPATH=h2.jar and --spring.datasource.* arguments.
+# Variants: fat jar, extracted layers, + Spring AOT, + CDS archive, and target/paperless when -Pnative built it.
+set -e
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+RUNS=${1:-5}
+[ $# -gt 0 ] && shift
+JAR=$ROOT/target/paperless-1.0.0.jar
+WORK=$ROOT/target/startup-benchmark
+
+# Same layout as the image
+rm -rf "$WORK"
+mkdir -p "$WORK/app/BOOT-INF"
+java -Djarmode=layertools -jar "$JAR" extract --destination "$WORK/layers"
+jar --create --file "$WORK/app/application.jar" -C "$WORK/layers/application/BOOT-INF/classes" .
+cp -r "$WORK/layers/dependencies/." "$WORK/app/"
+cp "$WORK/layers/application/BOOT-INF/classpath.idx" "$WORK/app/BOOT-INF/"
+cp "$ROOT/docker/start.sh" "$WORK/app/"
+echo "Training the CDS archive..."
+"$WORK/app/start.sh" train "$@" > "$WORK/train.log" 2>&1
+
+# Starts the command RUNS times on random ports, prints median and min seconds until "Started"
+measure() {
+    name=$1
+    shift
+    times=""
+    for i in $(seq "$RUNS"); do
+        log="$WORK/$name-$i.log"
+        : > "$log"
+        "$@" --server.port=0 --management.server.port=0 > "$log" 2>&1 &
+        pid=$!
+        while kill -0 $pid 2>/dev/null && ! grep -q "Started PaperlessApplication" "$log"; do
+            sleep 0.2
+        done
+        kill $pid 2>/dev/null || true
+        wait $pid 2>/dev/null || true
+        seconds=$(sed -n 's/.*process running for \([0-9.]*\)).*/\1/p' "$log")
+        if [ -z "$seconds" ]; then
+            echo "$name failed to start, see $log"
+            return
+        fi
+        times="$times $seconds"
+    done
+    echo "$times" | tr ' ' '\n' | sed '/^$/d' | sort -n | awk -v name="$name" '
+        { t[NR] = $1 }
+        END { printf "%-22s median %6.2fs   min %6.2fs   (%d runs)\n", name, t[int((NR + 1) / 2)], t[1], NR }'
+}
+
+APP="$WORK/app/start.sh"
+measure fat-jar java -cp "$JAR${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}" org.springframework.boot.loader.launch.JarLauncher "$@"
+measure extracted env SPRING_AOT=false CDS_ARCHIVE=none "$APP" "$@"
+measure extracted+aot env CDS_ARCHIVE=none "$APP" "$@"
+measure extracted+aot+cds "$APP" "$@"
+if [ -x "$ROOT/target/paperless" ]; then
+    measure native "$ROOT/target/paperless" "$@"
+fi
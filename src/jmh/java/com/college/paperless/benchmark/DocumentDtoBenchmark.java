@@ -0,0 +1,37 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.dto.DocumentDTO;
+import com.college.paperless.entity.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentDtoBenchmark {
+
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        document = Fixtures.fullyPopulatedDocument(1);
+    }
+
+    @Benchmark
+    public DocumentDTO fromEntity() {
+        return DocumentDTO.fromEntity(document);
+    }
+}
@@ -0,0 +1,149 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.User;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+// Deterministic test data shared by the benchmarks
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User user(long id, User.UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@veltech.edu.in");
+        user.setUsername("user" + id);
+        user.setName("Benchmark User " + id);
+        user.setVtuNumber("VTU" + (10000 + id));
+        user.setContactNumber("98400" + (10000 + id));
+        user.setYearOfStudy("3");
+        user.setDepartment("Computer Science and Engineering");
+        user.setRole(role);
+        return user;
+    }
+
+    // A document that has travelled the whole chain, so every association and timestamp is set
+    static Document fullyPopulatedDocument(long id) {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(id);
+        Document document = new Document();
+        document.setId(id);
+        document.setFileName("internship-certificate-" + id + ".pdf");
+        document.setFilePath("DB_STORED");
+        document.setFileType("application/pdf");
+        document.setFileSize(250_000L);
+        document.setDescription("Internship completion certificate for the summer term");
+        document.setStatus(Document.DocumentStatus.FORWARDED_TO_EXAM_CELL);
+        document.setStudent(user(1000 + id, User.UserRole.STUDENT));
+        document.setMentor(user(1, User.UserRole.MENTOR));
+        document.setHod(user(2, User.UserRole.HOD));
+        document.setDean(user(3, User.UserRole.DEAN));
+        document.setDeanAcademics(user(4, User.UserRole.DEAN_ACADEMICS));
+        document.setRegistrar(user(5, User.UserRole.REGISTRAR));
+        document.setCoe(user(6, User.UserRole.COE));
+        document.setRnd(user(7, User.UserRole.RND));
+        document.setIndustryRelations(user(8, User.UserRole.INDUSTRY_RELATIONS));
+        document.setExamCell(user(9, User.UserRole.EXAM_CELL));
+        document.setUploadedAt(at);
+        document.setForwardedToMentorAt(at.plusHours(1));
+        document.setMentorActionAt(at.plusHours(2));
+        document.setForwardedToHodAt(at.plusHours(3));
+        document.setHodActionAt(at.plusHours(4));
+        document.setForwardedToDeanAt(at.plusHours(5));
+        document.setDeanActionAt(at.plusHours(6));
+        document.setForwardedToDeanAcademicsAt(at.plusHours(7));
+        document.setDeanAcademicsActionAt(at.plusHours(8));
+        document.setForwardedToRegistrarAt(at.plusHours(9));
+        document.setRegistrarActionAt(at.plusHours(10));
+        document.setForwardedToCoeAt(at.plusHours(11));
+        document.setForwardedToRndAt(at.plusHours(12));
+        document.setForwardedToIndustryRelationsAt(at.plusHours(13));
+        document.setForwardedToExamCellAt(at.plusHours(14));
+        return document;
+    }
+
+    static byte[] textPdf(int pages) {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                pdf.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(50, 780);
+                    for (int line = 0; line < 60; line++) {
+                        content.showText("Page " + (i + 1) + ", line " + (line + 1)
+                                + ": the quick brown fox jumps over the lazy dog.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] imagePdf(int pages, int imageSize) {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Random random = new Random(42);
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                pdf.addPage(page);
+                PDImageXObject image = LosslessFactory.createFromImage(pdf, noise(imageSize, random));
+                try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                    content.drawImage(image, 50, 200, 500, 500);
+                }
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] signaturePng() {
+        BufferedImage image = new BufferedImage(300, 120, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.drawString("Benchmark Signature", 40, 60);
+        graphics.dispose();
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Noise does not compress, which is what makes scanned uploads heavy
+    private static BufferedImage noise(int size, Random random) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        return image;
+    }
+}
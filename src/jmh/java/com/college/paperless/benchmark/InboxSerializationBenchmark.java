@@ -0,0 +1,56 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.dto.DocumentDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InboxSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private Page<DocumentDTO> page;
+
+    @Setup
+    public void setUp() {
+        // Configured the way Spring Boot configures the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<DocumentDTO> documents = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            documents.add(DocumentDTO.fromEntity(Fixtures.fullyPopulatedDocument(i)));
+        }
+        page = new PageImpl<>(documents, PageRequest.of(0, PAGE_SIZE), 1_000);
+    }
+
+    @Benchmark
+    public byte[] serializeInboxPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,67 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.security.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "mentor@veltech.edu.in";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtTokenUtil = new JwtTokenUtil();
+        // Same values as application.properties; the fields are normally injected with @Value
+        set("secret", "MySecureJWTSecretKey123456789ForPaperlessApplication2024");
+        set("expiration", 86_400_000L);
+        userDetails = User.withUsername(EMAIL).password("").authorities("ROLE_MENTOR").build();
+        token = jwtTokenUtil.generateToken(EMAIL, 42L, "MENTOR");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtTokenUtil.generateToken(EMAIL, 42L, "MENTOR");
+    }
+
+    @Benchmark
+    public Boolean validate() {
+        return jwtTokenUtil.validateToken(token, userDetails);
+    }
+
+    // What the filter does per request: subject, then validation, then the user id claim
+    @Benchmark
+    public Long authenticateRequest() {
+        jwtTokenUtil.getUsernameFromToken(token);
+        jwtTokenUtil.validateToken(token, userDetails);
+        return jwtTokenUtil.getUserIdFromToken(token);
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtTokenUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtTokenUtil, value);
+    }
+}
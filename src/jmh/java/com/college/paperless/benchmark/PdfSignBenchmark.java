@@ -0,0 +1,85 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.User;
+import com.college.paperless.entity.UserSignature;
+import com.college.paperless.repository.UserSignatureRepository;
+import com.college.paperless.service.PdfService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfSignBenchmark {
+
+    // small: one text page; large: 50 text pages; images: 8 pages of incompressible 1000x1000 images (~24 MB raw)
+    @Param({"small", "large", "images"})
+    public String corpus;
+
+    @Param({"image", "text"})
+    public String signature;
+
+    private PdfService pdfService;
+    private User approver;
+    private LocalDateTime approvedAt;
+    private Document document;
+    private byte[] original;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        approver = Fixtures.user(1, User.UserRole.MENTOR);
+        approvedAt = LocalDateTime.now();
+        UserSignature approverSignature = new UserSignature();
+        approverSignature.setId(approver.getId());
+        if ("image".equals(signature)) {
+            approverSignature.setSignatureData(Fixtures.signaturePng());
+        }
+        pdfService = new PdfService(new SimpleMeterRegistry(), signatures(approverSignature));
+        original = switch (corpus) {
+            case "small" -> Fixtures.textPdf(1);
+            case "large" -> Fixtures.textPdf(50);
+            case "images" -> Fixtures.imagePdf(8, 1000);
+            default -> throw new IllegalArgumentException(corpus);
+        };
+        document = Fixtures.fullyPopulatedDocument(1);
+    }
+
+    @Benchmark
+    public byte[] addDigitalSign() {
+        // Stamping replaces the data, so every invocation starts from the unsigned original
+        document.setData(original);
+        pdfService.addDigitalSignToPdf(document, approver, "MENTOR", approvedAt);
+        return document.getData();
+    }
+
+    // Only findById is used by stamping; the rest of the repository is never called
+    private static UserSignatureRepository signatures(UserSignature fixture) {
+        return (UserSignatureRepository) Proxy.newProxyInstance(UserSignatureRepository.class.getClassLoader(),
+                new Class<?>[]{UserSignatureRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        return Optional.of(fixture).filter(signature -> signature.getId().equals(args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
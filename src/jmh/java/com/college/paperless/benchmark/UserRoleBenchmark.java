@@ -0,0 +1,57 @@
+package com.college.paperless.benchmark;
+
+import com.college.paperless.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRoleBenchmark {
+
+    // single: one role; priority: several roles including HOD (early exit); many: several roles, none prioritised
+    @Param({"single", "priority", "many"})
+    public String roles;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1, User.UserRole.STUDENT);
+        user.getRoles().clear();
+        switch (roles) {
+            case "single" -> user.setRole(User.UserRole.MENTOR);
+            case "priority" -> {
+                user.setRole(User.UserRole.MENTOR);
+                user.setRole(User.UserRole.FACULTY);
+                user.setRole(User.UserRole.HOD);
+            }
+            case "many" -> {
+                user.setRole(User.UserRole.MENTOR);
+                user.setRole(User.UserRole.FACULTY);
+                user.setRole(User.UserRole.RND);
+                user.setRole(User.UserRole.COE);
+            }
+            default -> throw new IllegalArgumentException(roles);
+        }
+    }
+
+    @Benchmark
+    public User.UserRole getRole() {
+        return user.getRole();
+    }
+}
@@ -0,0 +1,133 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.metrics.QueryCountFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Thin HTTP client that records every call against its endpoint template
+final class ApiClient {
+
+    record Response(int status, String body, String etag) {
+    }
+
+    record BudgetViolation(String endpoint, long statements, int budget) {
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, BudgetViolation> budgetViolations = new ConcurrentHashMap<>();
+
+    ApiClient(int port, Executor executor) {
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    // Drops what the warm-up recorded; budget violations are kept
+    void startMeasurement() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    // Worst call per endpoint that issued more SQL statements than its @QueryBudget allows
+    Collection<BudgetViolation> budgetViolations() {
+        return budgetViolations.values();
+    }
+
+    Response get(String endpoint, String path, String token, String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return send(endpoint, request.build());
+    }
+
+    Response postJson(String endpoint, String path, String token, String json) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    Response post(String endpoint, String path, String token) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    Response upload(String endpoint, String path, String token, String fileName, byte[] pdf, String description) {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 512);
+        writePart(body, boundary, "Content-Disposition: form-data; name=\"description\"\r\n\r\n", description.getBytes(StandardCharsets.UTF_8));
+        writePart(body, boundary, "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n", pdf);
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        String body;
+        String etag;
+        long statements = -1;
+        int budget = -1;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+            etag = response.headers().firstValue("ETag").orElse(null);
+            statements = response.headers().firstValueAsLong(QueryCountFilter.COUNT_HEADER).orElse(-1);
+            budget = (int) response.headers().firstValueAsLong(QueryCountFilter.BUDGET_HEADER).orElse(-1);
+        } catch (IOException e) {
+            status = 599;
+            body = e.toString();
+            etag = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(599, "interrupted", null);
+        }
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+        endpointStats.record(System.nanoTime() - start, status);
+        endpointStats.recordStatements(statements, budget);
+        if (budget >= 0 && statements > budget) {
+            budgetViolations.merge(endpoint, new BudgetViolation(endpoint, statements, budget),
+                    (a, b) -> a.statements() >= b.statements() ? a : b);
+        }
+        return new Response(status, body, etag);
+    }
+
+    private static void writePart(ByteArrayOutputStream body, String boundary, String headers, byte[] content) {
+        body.writeBytes(("--" + boundary + "\r\n" + headers).getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
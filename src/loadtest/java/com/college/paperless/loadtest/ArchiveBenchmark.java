@@ -0,0 +1,196 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.PaperlessApplication;
+import com.college.paperless.archive.DocumentArchiveTask;
+import com.college.paperless.archive.DocumentArchiver;
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.scheduler.MaintenanceTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the hot documents table before and after {@link DocumentArchiveTask} moves the content of completed
+ * documents to document_archive, on a dataset written by {@link DatasetGenerator} with -Ddataset.pdfData=true:
+ * content bytes left in the table (on MySQL also the clustered index and archive table sizes after ANALYZE TABLE),
+ * and the student history page as the application loads it, 20 full rows by student. A sample of archived
+ * documents is then read back through the download path and compared with the content they had before.
+ *
+ * Archiving is not undone at the end; run it on a copy of the dataset. For example:
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.college.paperless.loadtest.ArchiveBenchmark
+ *     -Ddataset.url=jdbc:mysql://localhost:3306/paperless -Dbench.minAge=180d
+ */
+public final class ArchiveBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int STUDENT_SAMPLE = 1000;
+    private static final int VERIFY_SAMPLE = 200;
+
+    private final DatasetConfig config;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int queries;
+    private final SplittableRandom random;
+
+    private ArchiveBenchmark(DatasetConfig config, Duration minAge, int batchSize, int queries) {
+        this.config = config;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.queries = queries;
+        this.random = new SplittableRandom(config.seed());
+    }
+
+    public static void main(String[] args) {
+        ArchiveBenchmark benchmark = new ArchiveBenchmark(DatasetConfig.fromSystemProperties(),
+                DurationStyle.detectAndParse(System.getProperty("bench.minAge", "180d")),
+                Integer.getInteger("bench.batchSize", 20), Integer.getInteger("bench.queries", 2000));
+        ConfigurableApplicationContext context = benchmark.boot();
+        int exitCode = 0;
+        try {
+            benchmark.run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private ConfigurableApplicationContext boot() {
+        boolean h2 = config.url().startsWith("jdbc:h2:");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        properties.put("spring.datasource.url", config.url());
+        properties.put("spring.datasource.username", config.username());
+        properties.put("spring.datasource.password", config.password());
+        if (h2) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        // The benchmark runs the task itself, once and to the end
+        properties.put("paperless.scheduler.enabled", false);
+        properties.put("paperless.jobs.enabled", false);
+        properties.put("paperless.audit.dir", "target/archivebench-audit-" + System.currentTimeMillis());
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(PaperlessApplication.class).run(args);
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        DocumentRepository documentRepository = context.getBean(DocumentRepository.class);
+        boolean mysql = config.url().startsWith("jdbc:mysql:");
+        List<Long> students = jdbc.queryForList("SELECT DISTINCT student_id FROM documents ORDER BY student_id LIMIT "
+                + STUDENT_SAMPLE, Long.class);
+        if (students.isEmpty()) {
+            throw new IllegalStateException("No documents in " + config.url() + "; run DatasetGenerator first");
+        }
+
+        // Content of a sample of the documents about to be archived, to compare with what downloads return after
+        List<Long> archivable = documentRepository.findArchivable(0, LocalDateTime.now().minus(minAge), Integer.MAX_VALUE);
+        Map<Long, byte[]> expected = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(VERIFY_SAMPLE, archivable.size()); i++) {
+            Long id = archivable.get(random.nextInt(archivable.size()));
+            expected.put(id, jdbc.queryForObject("SELECT data FROM documents WHERE id = ?", byte[].class, id));
+        }
+        System.out.printf("%,d documents to archive (terminal, uploaded more than %s ago)%n", archivable.size(), minAge);
+
+        System.out.printf("%n%-8s %10s %14s %14s %14s %12s %12s %14s%n", "", "with data", "content MB", "table MB",
+                "archive MB", "page p50 ms", "page p99 ms", "KB per page");
+        report(jdbc, "before", mysql, students);
+
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        DocumentArchiveTask task = new DocumentArchiveTask(documentRepository, context.getBean(DocumentArchiver.class),
+                minAge, Duration.ofHours(1), batchSize);
+        long started = System.nanoTime();
+        long archived = task.run(new MaintenanceTask.Context() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public boolean awaitQuiet() {
+                return true;
+            }
+        });
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        report(jdbc, "after", mysql, students);
+        double original = meterRegistry.get("paperless.archive.bytes").tag("stage", "original").counter().count();
+        double stored = meterRegistry.get("paperless.archive.bytes").tag("stage", "stored").counter().count();
+        System.out.printf("%nArchived %,d documents in %.1fs (%.0f/s), batches of %d; content %.1f MB stored as %.1f MB (%.0f%%)%n",
+                archived, seconds, archived / seconds, batchSize, original / 1048576, stored / 1048576,
+                original > 0 ? 100 * stored / original : 0);
+
+        int mismatches = 0;
+        for (Map.Entry<Long, byte[]> entry : expected.entrySet()) {
+            long version = jdbc.queryForObject("SELECT version FROM documents WHERE id = ?", Long.class, entry.getKey());
+            byte[] data = documentRepository.findDataIfUnchanged(entry.getKey(), version).orElse(null);
+            if (!Arrays.equals(entry.getValue(), data)) {
+                mismatches++;
+            }
+        }
+        System.out.printf("Read back %d archived documents: %d mismatches%n", expected.size(), mismatches);
+        if (mismatches > 0) {
+            throw new IllegalStateException(mismatches + " archived documents read back different content");
+        }
+    }
+
+    private void report(JdbcTemplate jdbc, String label, boolean mysql, List<Long> students) {
+        Map<String, Object> content = jdbc.queryForMap(
+                "SELECT COUNT(data) AS with_data, COALESCE(SUM(OCTET_LENGTH(data)), 0) AS bytes FROM documents");
+        String tableMb = "-";
+        String archiveMb = "-";
+        if (mysql) {
+            jdbc.execute("ANALYZE TABLE documents, document_archive");
+            Map<String, Long> sizes = new LinkedHashMap<>();
+            jdbc.query("SELECT table_name, data_length FROM information_schema.tables WHERE table_schema = DATABASE()"
+                            + " AND table_name IN ('documents', 'document_archive')",
+                    rs -> {
+                        sizes.put(rs.getString(1).toLowerCase(), rs.getLong(2));
+                    });
+            tableMb = "%.1f".formatted(sizes.getOrDefault("documents", 0L) / 1048576.0);
+            archiveMb = "%.1f".formatted(sizes.getOrDefault("document_archive", 0L) / 1048576.0);
+        }
+
+        // The student history page loads whole entities, content included
+        long[] nanos = new long[queries];
+        long bytes = 0;
+        for (int i = -queries / 10; i < queries; i++) {
+            long student = students.get(random.nextInt(students.size()));
+            long start = System.nanoTime();
+            long[] fetched = new long[1];
+            jdbc.query("SELECT * FROM documents WHERE student_id = ? ORDER BY uploaded_at DESC LIMIT " + PAGE_SIZE,
+                    rs -> {
+                        byte[] data = rs.getBytes("data");
+                        fetched[0] += data == null ? 0 : data.length;
+                    }, student);
+            if (i >= 0) {
+                nanos[i] = System.nanoTime() - start;
+                bytes += fetched[0];
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-8s %,10d %14.1f %14s %14s %12.3f %12.3f %14.1f%n", label,
+                ((Number) content.get("with_data")).longValue(),
+                ((Number) content.get("bytes")).longValue() / 1048576.0, tableMb, archiveMb,
+                nanos[nanos.length / 2] / 1e6, nanos[Math.min(nanos.length - 1, (int) (nanos.length * 0.99))] / 1e6,
+                bytes / 1024.0 / queries);
+    }
+}
@@ -0,0 +1,33 @@
+package com.college.paperless.loadtest;
+
+// All knobs are system properties, like LoadTestConfig
+record DatasetConfig(
+        String url,
+        String username,
+        String password,
+        int students,
+        int departments,
+        int mentorsPerDepartment,
+        long documents,
+        int days,
+        boolean pdfData,
+        int rowsPerInsert,
+        int threads,
+        long seed) {
+
+    static DatasetConfig fromSystemProperties() {
+        return new DatasetConfig(
+                System.getProperty("dataset.url", "jdbc:mysql://localhost:3306/paperless"),
+                System.getProperty("dataset.username", "root"),
+                System.getProperty("dataset.password", ""),
+                Integer.getInteger("dataset.students", 50_000),
+                Integer.getInteger("dataset.departments", 12),
+                Integer.getInteger("dataset.mentorsPerDepartment", 40),
+                Long.getLong("dataset.documents", 1_000_000L),
+                Integer.getInteger("dataset.days", 730),
+                Boolean.getBoolean("dataset.pdfData"),
+                Integer.getInteger("dataset.rowsPerInsert", 500),
+                Integer.getInteger("dataset.threads", 4),
+                Long.getLong("dataset.seed", 42L));
+    }
+}
@@ -0,0 +1,400 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.entity.Document.DocumentStatus;
+import com.college.paperless.entity.User.UserRole;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a synthetic dataset for query and index work: departments of students, mentors and HODs, the
+ * institution-level approvers (several holding more than one role), and documents spread over every
+ * {@code DocumentStatus}.
+ *
+ * Each document walks the approval chain the way the application would move it, so assignee columns and the
+ * per-role forwarded/action timestamps are consistent with its status. Uploads are spread over
+ * {@code dataset.days}; a document whose next step would land in the future stops there, so recent documents are
+ * the ones still pending. Rows go in with multi-row INSERTs over {@code dataset.threads} connections, appending
+ * after the highest existing ids.
+ *
+ * The tables must exist: start the application once against the target database first. Then, for example:
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.college.paperless.loadtest.DatasetGenerator
+ *     -Ddataset.url=jdbc:mysql://localhost:3306/paperless -Ddataset.documents=5000000
+ */
+public final class DatasetGenerator {
+
+    private static final String[] DEPARTMENTS = {
+            "CSE", "ECE", "EEE", "MECH", "CIVIL", "IT", "AIDS", "AIML", "BME", "CHEM", "AERO", "BIOTECH"};
+
+    private static final String[] DOCUMENT_KINDS = {
+            "internship-certificate", "bonafide-request", "od-letter", "fee-receipt", "project-report",
+            "conference-paper", "scholarship-form", "no-dues"};
+
+    private static final List<String> USER_COLUMNS = List.of(
+            "id", "email", "username", "name", "vtu_number", "contact_number", "year_of_study", "department",
+            "role_mask", "created_at", "updated_at");
+
+    private static final List<String> DOCUMENT_COLUMNS = List.of(
+            "id", "file_name", "file_path", "file_type", "file_size", "description", "data", "status_code", "version",
+            "rejection_reason", "uploaded_at", "student_id",
+            "mentor_id", "forwarded_to_mentor_at", "mentor_action_at",
+            "hod_id", "forwarded_to_hod_at", "hod_action_at",
+            "dean_id", "forwarded_to_dean_at", "dean_action_at",
+            "dean_academics_id", "forwarded_to_dean_academics_at", "dean_academics_action_at",
+            "registrar_id", "forwarded_to_registrar_at", "registrar_action_at",
+            "coe_id", "forwarded_to_coe_at",
+            "rnd_id", "forwarded_to_rnd_at",
+            "industry_relations_id", "forwarded_to_industry_relations_at",
+            "exam_cell_id", "forwarded_to_exam_cell_at");
+
+    private static final double DRAFT_RATE = 0.03;
+    private static final double PENDING_RATE = 0.08;
+    private static final double REJECT_RATE = 0.07;
+    private static final double STOP_AFTER_APPROVAL_RATE = 0.1;
+
+    // A step of the approval chain: who it is assigned to and where its timestamps live
+    private enum Stage {
+        MENTOR("mentor_id", "forwarded_to_mentor_at", "mentor_action_at"),
+        HOD("hod_id", "forwarded_to_hod_at", "hod_action_at"),
+        DEAN("dean_id", "forwarded_to_dean_at", "dean_action_at"),
+        DEAN_ACADEMICS("dean_academics_id", "forwarded_to_dean_academics_at", "dean_academics_action_at"),
+        REGISTRAR("registrar_id", "forwarded_to_registrar_at", "registrar_action_at"),
+        COE("coe_id", "forwarded_to_coe_at", null),
+        RND("rnd_id", "forwarded_to_rnd_at", null),
+        INDUSTRY_RELATIONS("industry_relations_id", "forwarded_to_industry_relations_at", null),
+        EXAM_CELL("exam_cell_id", "forwarded_to_exam_cell_at", null);
+
+        private final int assigneeIndex;
+        private final int forwardedIndex;
+        private final int actionIndex;
+
+        Stage(String assigneeColumn, String forwardedColumn, String actionColumn) {
+            this.assigneeIndex = DOCUMENT_COLUMNS.indexOf(assigneeColumn);
+            this.forwardedIndex = DOCUMENT_COLUMNS.indexOf(forwardedColumn);
+            this.actionIndex = actionColumn == null ? -1 : DOCUMENT_COLUMNS.indexOf(actionColumn);
+        }
+    }
+
+    // Same routing as WorkflowScenario; stages without an entry end the chain
+    private static final Map<Stage, Stage[]> NEXT = Map.of(
+            Stage.MENTOR, new Stage[]{Stage.HOD},
+            Stage.HOD, new Stage[]{Stage.DEAN},
+            Stage.DEAN, new Stage[]{Stage.DEAN_ACADEMICS, Stage.DEAN_ACADEMICS, Stage.DEAN_ACADEMICS,
+                    Stage.INDUSTRY_RELATIONS, Stage.RND, Stage.COE},
+            Stage.DEAN_ACADEMICS, new Stage[]{Stage.REGISTRAR, Stage.REGISTRAR, Stage.EXAM_CELL},
+            Stage.COE, new Stage[]{Stage.EXAM_CELL},
+            Stage.INDUSTRY_RELATIONS, new Stage[]{Stage.DEAN_ACADEMICS});
+
+    private final DatasetConfig config;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final AtomicLong documentsWritten = new AtomicLong();
+
+    // Filled by generateUsers(); per-department arrays are indexed by department
+    private long firstStudentId;
+    private long[] hods;
+    private long[][] mentors;
+    private final Map<Stage, List<Long>> approvers = new EnumMap<>(Stage.class);
+    private byte[][] pdfs;
+
+    private DatasetGenerator(DatasetConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetConfig config = DatasetConfig.fromSystemProperties();
+        long start = System.nanoTime();
+        new DatasetGenerator(config).run();
+        System.out.printf("Done in %.1fs%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private void run() throws Exception {
+        if (config.pdfData()) {
+            pdfs = new byte[8][];
+            for (int i = 0; i < pdfs.length; i++) {
+                pdfs[i] = syntheticPdf(i + 1);
+            }
+        }
+
+        long firstDocumentId;
+        try (Connection connection = connect()) {
+            long firstUserId = maxId(connection, "users") + 1;
+            firstDocumentId = maxId(connection, "documents") + 1;
+            generateUsers(connection, firstUserId);
+        }
+
+        // Each worker owns a contiguous id range and its own connection and random stream
+        int threads = Math.max(1, config.threads());
+        long perThread = (config.documents() + threads - 1) / threads;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long from = firstDocumentId + t * perThread;
+            long to = Math.min(firstDocumentId + config.documents(), from + perThread);
+            SplittableRandom random = new SplittableRandom(config.seed() + t + 1);
+            workers.add(pool.submit(() -> {
+                generateDocuments(from, to, random);
+                return null;
+            }));
+        }
+        pool.shutdown();
+        long started = System.nanoTime();
+        while (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+            long written = documentsWritten.get();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("  %,d / %,d documents (%,.0f rows/s)%n", written, config.documents(), written / seconds);
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get(0, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        System.out.printf("Wrote %,d documents with ids %d..%d%n", documentsWritten.get(), firstDocumentId,
+                firstDocumentId + config.documents() - 1);
+    }
+
+    private void generateUsers(Connection connection, long firstId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        long id = firstId;
+        try (MultiRowInsert users = new MultiRowInsert(connection, "users", USER_COLUMNS, config.rowsPerInsert())) {
+
+            int departments = Math.max(1, config.departments());
+            hods = new long[departments];
+            mentors = new long[departments][Math.max(1, config.mentorsPerDepartment())];
+            for (int d = 0; d < departments; d++) {
+                String department = department(d);
+                // The HOD also mentors students of the department
+                hods[d] = id;
+                addUser(users, id++, "hod", department, null, random, UserRole.HOD, UserRole.MENTOR, UserRole.FACULTY);
+                for (int m = 0; m < mentors[d].length; m++) {
+                    mentors[d][m] = id;
+                    if (random.nextDouble() < 0.8) {
+                        addUser(users, id++, "mentor", department, null, random, UserRole.MENTOR, UserRole.FACULTY);
+                    } else {
+                        addUser(users, id++, "mentor", department, null, random, UserRole.MENTOR);
+                    }
+                }
+            }
+
+            // Institution-level approvers, a few of them doubling up as in production
+            for (Stage stage : List.of(Stage.DEAN, Stage.DEAN_ACADEMICS, Stage.REGISTRAR, Stage.COE, Stage.RND,
+                    Stage.INDUSTRY_RELATIONS, Stage.EXAM_CELL)) {
+                int count = stage == Stage.REGISTRAR ? 1 : stage == Stage.EXAM_CELL ? 4 : 3;
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    ids.add(id);
+                    String kind = stage.name().toLowerCase();
+                    if (stage == Stage.DEAN && i == 0) {
+                        addUser(users, id, kind, null, null, random,
+                                UserRole.DEAN, UserRole.DEAN_ACADEMICS, UserRole.FACULTY);
+                        approvers.computeIfAbsent(Stage.DEAN_ACADEMICS, s -> new ArrayList<>()).add(id);
+                    } else if (stage == Stage.COE && i == 0) {
+                        addUser(users, id, kind, null, null, random, UserRole.COE, UserRole.EXAM_CELL);
+                        approvers.computeIfAbsent(Stage.EXAM_CELL, s -> new ArrayList<>()).add(id);
+                    } else {
+                        addUser(users, id, kind, null, null, random, UserRole.valueOf(stage.name()), UserRole.FACULTY);
+                    }
+                    id++;
+                }
+                approvers.computeIfAbsent(stage, s -> new ArrayList<>()).addAll(ids);
+            }
+            for (int i = 0; i < 2; i++) {
+                addUser(users, id++, "admin", null, null, random, UserRole.ADMIN);
+            }
+
+            firstStudentId = id;
+            for (int s = 0; s < config.students(); s++) {
+                addUser(users, id++, "student", department(s % departments), 1 + random.nextInt(4), random,
+                        UserRole.STUDENT);
+            }
+            users.flush();
+        }
+        connection.commit();
+        System.out.printf("Wrote %,d users (%,d students) with ids %d..%d%n", id - firstId, config.students(),
+                firstId, id - 1);
+    }
+
+    private void generateDocuments(long from, long to, SplittableRandom random) throws SQLException {
+        try (Connection connection = connect();
+             MultiRowInsert documents = new MultiRowInsert(connection, "documents", DOCUMENT_COLUMNS,
+                     config.rowsPerInsert())) {
+            for (long id = from; id < to; id++) {
+                int written = documents.add(document(id, random));
+                if (written > 0) {
+                    connection.commit();
+                    documentsWritten.addAndGet(written);
+                }
+            }
+            documentsWritten.addAndGet(documents.flush());
+            connection.commit();
+        }
+    }
+
+    private Object[] document(long id, SplittableRandom random) {
+        Object[] row = new Object[DOCUMENT_COLUMNS.size()];
+        // Squaring skews uploads towards a minority of very active students
+        double r = random.nextDouble();
+        int student = (int) (r * r * config.students());
+        int department = student % hods.length;
+        String kind = DOCUMENT_KINDS[random.nextInt(DOCUMENT_KINDS.length)];
+
+        row[0] = id;
+        row[1] = kind + "-" + id + ".pdf";
+        row[2] = "DB_STORED";
+        row[3] = "application/pdf";
+        if (pdfs != null) {
+            byte[] pdf = pdfs[random.nextInt(pdfs.length)];
+            row[4] = (long) pdf.length;
+            row[6] = pdf;
+        } else {
+            // Log-normal around 300 KB, like scanned certificates
+            row[4] = (long) Math.exp(12.6 + random.nextDouble() * 1.5 - 0.75);
+        }
+        row[5] = random.nextDouble() < 0.6 ? kind.replace('-', ' ') + " for semester " + (1 + random.nextInt(8)) : null;
+        row[11] = firstStudentId + student;
+
+        LocalDateTime uploadedAt = now.minusSeconds(random.nextLong(config.days() * 86_400L));
+        row[10] = timestamp(uploadedAt);
+
+        String status = "DRAFT";
+        long version = 0;
+        if (random.nextDouble() >= DRAFT_RATE) {
+            // Students forward within hours, approvers pass things on soon after approving
+            LocalDateTime at = uploadedAt.plusSeconds(exponential(random, 6 * 3600));
+            Stage stage = Stage.MENTOR;
+            while (stage != null && !at.isAfter(now)) {
+                row[stage.assigneeIndex] = assignee(stage, department, random);
+                row[stage.forwardedIndex] = timestamp(at);
+                status = "FORWARDED_TO_" + stage.name();
+                version++;
+
+                // Approvers take about a day, longer further up the chain
+                LocalDateTime actedAt = at.plusSeconds(exponential(random, 86_400L * (1 + stage.ordinal() / 3)));
+                if (actedAt.isAfter(now) || random.nextDouble() < PENDING_RATE) {
+                    break;
+                }
+                if (stage.actionIndex >= 0) {
+                    row[stage.actionIndex] = timestamp(actedAt);
+                }
+                version++;
+                if (random.nextDouble() < REJECT_RATE) {
+                    status = "REJECTED_BY_" + stage.name();
+                    row[9] = "Rejected: " + kind.replace('-', ' ') + " is incomplete";
+                    break;
+                }
+                status = "APPROVED_BY_" + stage.name();
+
+                Stage[] next = NEXT.get(stage);
+                if (next == null || random.nextDouble() < STOP_AFTER_APPROVAL_RATE) {
+                    break;
+                }
+                stage = next[random.nextInt(next.length)];
+                at = actedAt.plusSeconds(exponential(random, 1800));
+            }
+        }
+        row[7] = DocumentStatus.valueOf(status).code();
+        row[8] = version;
+        return row;
+    }
+
+    private long assignee(Stage stage, int department, SplittableRandom random) {
+        return switch (stage) {
+            case MENTOR -> mentors[department][random.nextInt(mentors[department].length)];
+            case HOD -> hods[department];
+            default -> {
+                List<Long> ids = approvers.get(stage);
+                yield ids.get(random.nextInt(ids.size()));
+            }
+        };
+    }
+
+    private static void addUser(MultiRowInsert users, long id, String kind, String department, Integer year,
+                                SplittableRandom random, UserRole... roles) throws SQLException {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(random.nextInt(1500)));
+        users.add(id, kind + id + "@dataset.veltech.edu.in", kind + id, kind + " " + id,
+                "student".equals(kind) ? "VTU" + id : null,
+                String.format("9%09d", random.nextLong(1_000_000_000L)),
+                year == null ? null : String.valueOf(year), department, UserRole.maskOf(Arrays.asList(roles)),
+                createdAt, createdAt);
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(config.url(), config.username(), config.password());
+        connection.setAutoCommit(false);
+        if (config.url().startsWith("jdbc:mysql:")) {
+            // Ids are fresh and references are known to exist; skip the per-row checks for the bulk load
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION unique_checks = 0, foreign_key_checks = 0");
+            }
+        }
+        return connection;
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private String department(int index) {
+        return index < DEPARTMENTS.length ? DEPARTMENTS[index] : "DEPT" + (index + 1);
+    }
+
+    private static long exponential(SplittableRandom random, long meanSeconds) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanSeconds);
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return Timestamp.valueOf(time);
+    }
+
+    private static byte[] syntheticPdf(int pages) throws IOException {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            char[] filler = new char[80];
+            Arrays.fill(filler, 'x');
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage();
+                pdf.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < 50; line++) {
+                        content.showText("Synthetic page " + (i + 1) + " line " + line + " " + new String(filler));
+                        content.newLineAtOffset(0, -14);
+                    }
+                    content.endText();
+                }
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        }
+    }
+}
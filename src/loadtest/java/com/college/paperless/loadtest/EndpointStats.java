@@ -0,0 +1,81 @@
+package com.college.paperless.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram and status counters for one endpoint, safe to record from any number of threads
+final class EndpointStats {
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder counted = new LongAdder();
+    private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+    private volatile int budget = -1;
+
+    void record(long nanos, int status) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latencyMicros.getHighestTrackableValue()));
+        if (status == 304) {
+            notModified.increment();
+        } else if (status == 429) {
+            throttled.increment();
+        } else if (status == 409) {
+            conflicts.increment();
+        } else if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    // From the X-Query-Count / X-Query-Budget headers; -1 when the response had none
+    void recordStatements(long count, int budget) {
+        if (count < 0) {
+            return;
+        }
+        statements.add(count);
+        counted.increment();
+        maxStatements.accumulate(count);
+        if (budget >= 0) {
+            this.budget = budget;
+        }
+    }
+
+    long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    Map<String, Object> summary(double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count());
+        summary.put("throughputPerSecond", round(count() / elapsedSeconds));
+        summary.put("p50Ms", millis(latencyMicros.getValueAtPercentile(50)));
+        summary.put("p90Ms", millis(latencyMicros.getValueAtPercentile(90)));
+        summary.put("p99Ms", millis(latencyMicros.getValueAtPercentile(99)));
+        summary.put("maxMs", millis(latencyMicros.getMaxValue()));
+        summary.put("notModified", notModified.sum());
+        summary.put("conflicts", conflicts.sum());
+        summary.put("throttled", throttled.sum());
+        summary.put("errors", errors.sum());
+        long samples = counted.sum();
+        summary.put("statementsPerRequest", samples == 0 ? null : round((double) statements.sum() / samples));
+        summary.put("maxStatements", samples == 0 ? null : maxStatements.get());
+        summary.put("queryBudget", budget < 0 ? null : budget);
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
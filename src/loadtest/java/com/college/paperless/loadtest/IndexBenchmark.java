@@ -0,0 +1,245 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.entity.Document.DocumentStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the numeric status_code layout against the VARCHAR status it replaced, on a dataset written by
+ * {@link DatasetGenerator}. A shadow status_name column is filled from status_code and given the same status and
+ * inbox indexes as the real one, then both layouts answer the same inbox page and status-range queries. On MySQL
+ * the index sizes come from mysql.innodb_index_stats after ANALYZE TABLE; other databases only get timings.
+ *
+ * The shadow column and its indexes are dropped at the end unless -Dbench.keepShadow=true. For example:
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.college.paperless.loadtest.IndexBenchmark
+ *     -Ddataset.url=jdbc:mysql://localhost:3306/paperless -Dbench.queries=5000
+ */
+public final class IndexBenchmark {
+
+    // Approver columns benchmarked: the two busiest departmental inboxes and the first institution-level one
+    private static final String[][] INBOXES = {
+            {"mentor_id", "forwarded_to_mentor_at", "FORWARDED_TO_MENTOR"},
+            {"hod_id", "forwarded_to_hod_at", "FORWARDED_TO_HOD"},
+            {"dean_id", "forwarded_to_dean_at", "FORWARDED_TO_DEAN"}};
+
+    private static final List<DocumentStatus> TERMINAL = List.of(
+            DocumentStatus.APPROVED_BY_REGISTRAR, DocumentStatus.APPROVED_BY_EXAM_CELL,
+            DocumentStatus.REJECTED_BY_MENTOR, DocumentStatus.REJECTED_BY_HOD, DocumentStatus.REJECTED_BY_DEAN);
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ASSIGNEE_SAMPLE = 1000;
+
+    private final DatasetConfig config;
+    private final int queries;
+    private final boolean keepShadow;
+    private final SplittableRandom random;
+
+    private IndexBenchmark(DatasetConfig config, int queries, boolean keepShadow) {
+        this.config = config;
+        this.queries = queries;
+        this.keepShadow = keepShadow;
+        this.random = new SplittableRandom(config.seed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new IndexBenchmark(DatasetConfig.fromSystemProperties(), Integer.getInteger("bench.queries", 2000),
+                Boolean.getBoolean("bench.keepShadow")).run();
+    }
+
+    private void run() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(config.url(), config.username(), config.password())) {
+            boolean mysql = config.url().startsWith("jdbc:mysql:");
+            long rows = count(connection, "SELECT COUNT(*) FROM documents");
+            System.out.printf("documents: %,d rows%n", rows);
+
+            long started = System.nanoTime();
+            createShadow(connection);
+            System.out.printf("Built the status_name shadow column and indexes in %.1fs%n",
+                    (System.nanoTime() - started) / 1e9);
+            try {
+                if (mysql) {
+                    printIndexSizes(connection);
+                }
+                System.out.printf("%n%-40s %10s %10s %10s %12s%n", "query", "p50 ms", "p99 ms", "mean ms", "rows/query");
+                for (String[] inbox : INBOXES) {
+                    List<Long> assignees = assignees(connection, inbox[0]);
+                    if (assignees.isEmpty()) {
+                        continue;
+                    }
+                    DocumentStatus status = DocumentStatus.valueOf(inbox[2]);
+                    String inboxSql = "SELECT id, %s FROM documents WHERE %s = ? AND %%s = ? ORDER BY %s DESC LIMIT "
+                            .formatted(inbox[1], inbox[0], inbox[1]) + PAGE_SIZE;
+                    String label = inbox[0].replace("_id", "") + " inbox page";
+                    timeInbox(connection, label + " (name)", inboxSql.formatted("status_name"), assignees, status.name());
+                    timeInbox(connection, label + " (code)", inboxSql.formatted("status_code"), assignees, status.code());
+                }
+                String names = TERMINAL.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(","));
+                String codes = TERMINAL.stream().map(s -> String.valueOf(s.code())).collect(Collectors.joining(","));
+                timeScan(connection, "terminal status count (name)",
+                        "SELECT COUNT(*) FROM documents WHERE status_name IN (" + names + ")");
+                timeScan(connection, "terminal status count (code)",
+                        "SELECT COUNT(*) FROM documents WHERE status_code IN (" + codes + ")");
+            } finally {
+                if (!keepShadow) {
+                    dropShadow(connection);
+                }
+            }
+        }
+    }
+
+    private void createShadow(Connection connection) throws SQLException {
+        String codes = Arrays.stream(DocumentStatus.values())
+                .map(status -> "WHEN " + status.code() + " THEN '" + status.name() + "'")
+                .collect(Collectors.joining(" "));
+        // Left behind by an interrupted run
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, "documents", "status_name")) {
+            if (columns.next()) {
+                dropShadow(connection);
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE documents ADD COLUMN status_name VARCHAR(100)");
+            long maxId = count(connection, "SELECT COALESCE(MAX(id), 0) FROM documents");
+            for (long from = 0; from < maxId; from += 50_000) {
+                statement.executeUpdate("UPDATE documents SET status_name = CASE status_code " + codes + " END"
+                        + " WHERE id > " + from + " AND id <= " + (from + 50_000));
+            }
+            statement.execute("CREATE INDEX idx_bench_status_name ON documents (status_name)");
+            for (String[] inbox : INBOXES) {
+                statement.execute("CREATE INDEX " + shadowIndex(inbox)
+                        + " ON documents (" + inbox[0] + ", status_name, " + inbox[1] + ")");
+            }
+        }
+    }
+
+    // Indexes first: MySQL would shrink them, other databases refuse to drop a column a composite index uses
+    private void dropShadow(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String index : indexNames(connection)) {
+                if (index.startsWith("idx_bench_")) {
+                    statement.execute("DROP INDEX " + index + " ON documents");
+                }
+            }
+            statement.execute("ALTER TABLE documents DROP COLUMN status_name");
+        }
+    }
+
+    private static List<String> indexNames(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, "documents", false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null && !names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String shadowIndex(String[] inbox) {
+        return "idx_bench_" + inbox[0].replace("_id", "") + "_inbox_name";
+    }
+
+    private void printIndexSizes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE documents");
+        }
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT index_name, stat_value * @@innodb_page_size"
+                     + " FROM mysql.innodb_index_stats WHERE database_name = DATABASE()"
+                     + " AND table_name = 'documents' AND stat_name = 'size' ORDER BY index_name")) {
+            while (rs.next()) {
+                sizes.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        System.out.printf("%n%-45s %12s%n", "index", "size MB");
+        sizes.forEach((name, bytes) -> {
+            if (name.contains("status") || name.contains("inbox")) {
+                System.out.printf("%-45s %12.1f%n", name, bytes / 1048576.0);
+            }
+        });
+    }
+
+    private List<Long> assignees(Connection connection, String column) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT DISTINCT " + column + " FROM documents WHERE "
+                     + column + " IS NOT NULL ORDER BY " + column + " LIMIT " + ASSIGNEE_SAMPLE)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private void timeInbox(Connection connection, String label, String sql, List<Long> assignees, Object status)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(2, status);
+            long[] nanos = new long[queries];
+            long rows = 0;
+            // Same warm-up as measured queries, so both layouts are read from the buffer pool
+            for (int i = -queries / 10; i < queries; i++) {
+                statement.setLong(1, assignees.get(random.nextInt(assignees.size())));
+                long start = System.nanoTime();
+                int fetched = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        fetched++;
+                    }
+                }
+                if (i >= 0) {
+                    nanos[i] = System.nanoTime() - start;
+                    rows += fetched;
+                }
+            }
+            report(label, nanos, (double) rows / queries);
+        }
+    }
+
+    private void timeScan(Connection connection, String label, String sql) throws SQLException {
+        int runs = Math.max(5, queries / 100);
+        long[] nanos = new long[runs];
+        long rows = 0;
+        for (int i = -1; i < runs; i++) {
+            long start = System.nanoTime();
+            long counted = count(connection, sql);
+            if (i >= 0) {
+                nanos[i] = System.nanoTime() - start;
+                rows += counted;
+            }
+        }
+        report(label, nanos, (double) rows / runs);
+    }
+
+    private static void report(String label, long[] nanos, double rowsPerQuery) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-40s %10.3f %10.3f %10.3f %12.1f%n", label,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6,
+                Arrays.stream(sorted).average().orElse(0) / 1e6,
+                rowsPerQuery);
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
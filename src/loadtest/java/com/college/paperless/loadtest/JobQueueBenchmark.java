@@ -0,0 +1,185 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.PaperlessApplication;
+import com.college.paperless.config.BackgroundThreads;
+import com.college.paperless.entity.Job;
+import com.college.paperless.job.JobHandler;
+import com.college.paperless.job.JobQueue;
+import com.college.paperless.job.JobWorker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains a backlog of no-op jobs with 1, 2, 4... competing {@link JobWorker}s, each with its own worker id, poller
+ * and threads, as separate nodes would run them against the same database. Reports jobs per second, how the claims
+ * split between the workers and how many jobs ran more than once (expected 0 while jobs finish inside their
+ * visibility timeout).
+ *
+ * H2 locks every matching row before applying the LIMIT, so claims slow down with the backlog and a claim racing
+ * another one finds nothing; point -Dbench.url at MySQL 8 or MariaDB 10.6+ for scaling numbers:
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.college.paperless.loadtest.JobQueueBenchmark
+ *     -Dbench.url=jdbc:mysql://localhost:3306/paperless -Dbench.username=root -Dbench.instances=1,2,4,8
+ */
+public final class JobQueueBenchmark {
+
+    private static final String TYPE = "bench.noop";
+    private static final int INSERT_BATCH = 1000;
+
+    private final int[] instances;
+    private final int workers;
+    private final int jobs;
+    private final long workNanos;
+
+    private final Set<Long> done = ConcurrentHashMap.newKeySet();
+    private final LongAdder executions = new LongAdder();
+
+    private JobQueueBenchmark(int[] instances, int workers, int jobs, long workNanos) {
+        this.instances = instances;
+        this.workers = workers;
+        this.jobs = jobs;
+        this.workNanos = workNanos;
+    }
+
+    public static void main(String[] args) {
+        int[] instances = Arrays.stream(System.getProperty("bench.instances", "1,2,4").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        JobQueueBenchmark benchmark = new JobQueueBenchmark(instances, Integer.getInteger("bench.workers", 4),
+                Integer.getInteger("bench.jobs", 5000), TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("bench.workMillis", 2)));
+        ConfigurableApplicationContext context = benchmark.boot();
+        int exitCode = 0;
+        try {
+            benchmark.run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private ConfigurableApplicationContext boot() {
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:jobbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        boolean h2 = url.startsWith("jdbc:h2:");
+        int maxInstances = Arrays.stream(instances).max().orElse(1);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", System.getProperty("bench.username", h2 ? "sa" : "root"));
+        properties.put("spring.datasource.password", System.getProperty("bench.password", ""));
+        // One connection per claiming poller and per job completion, plus slack for the harness
+        properties.put("spring.datasource.hikari.maximum-pool-size", maxInstances * (workers + 1) + 4);
+        if (h2) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        }
+        // The context's own worker stays off; the benchmark starts its own
+        properties.put("paperless.jobs.enabled", false);
+        properties.put("paperless.audit.dir", "target/jobbench-audit-" + System.currentTimeMillis());
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(PaperlessApplication.class).run(args);
+    }
+
+    private void run(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        JobQueue jobQueue = context.getBean(JobQueue.class);
+        BackgroundThreads backgroundThreads = context.getBean(BackgroundThreads.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        JobHandler handler = new JobHandler() {
+            @Override
+            public String getType() {
+                return TYPE;
+            }
+
+            @Override
+            public void handle(Job job) {
+                executions.increment();
+                if (workNanos > 0) {
+                    LockSupport.parkNanos(workNanos);
+                }
+                done.add(job.getId());
+            }
+        };
+
+        System.out.printf("%d jobs of %.1f ms, %d threads per instance%n", jobs, workNanos / 1e6, workers);
+        System.out.printf("%n%-10s %10s %10s %12s %10s %10s %22s%n", "instances", "seconds", "jobs/s", "ideal jobs/s",
+                "claim ms", "duplicates", "claims min/max share");
+        for (int count : instances) {
+            jdbc.update("DELETE FROM jobs WHERE type = ?", TYPE);
+            enqueue(jdbc);
+            done.clear();
+            executions.reset();
+
+            List<JobWorker> running = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                running.add(new JobWorker(jobQueue, List.of(handler), backgroundThreads, meterRegistry,
+                        "bench-" + count + "-" + i, true, workers, Duration.ofMillis(100)));
+            }
+            long started = System.nanoTime();
+            running.forEach(JobWorker::start);
+            long deadline = started + TimeUnit.MINUTES.toNanos(10);
+            while (done.size() < jobs && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            running.forEach(JobWorker::stop);
+            if (done.size() < jobs) {
+                throw new IllegalStateException(done.size() + " of " + jobs + " jobs ran within 10 minutes");
+            }
+
+            List<Long> claims = jdbc.queryForList(
+                    "SELECT COUNT(*) FROM jobs WHERE type = ? GROUP BY claimed_by", Long.class, TYPE);
+            double ideal = workNanos > 0 ? count * workers * 1e9 / workNanos : Double.NaN;
+            String prefix = "bench-" + count + "-";
+            double claimMillis = meterRegistry.find("paperless.jobs.claim").timers().stream()
+                    .filter(timer -> timer.getId().getTag("worker").startsWith(prefix))
+                    .mapToDouble(timer -> timer.mean(TimeUnit.MILLISECONDS))
+                    .average().orElse(0);
+            System.out.printf("%-10d %10.2f %10.0f %12.0f %10.1f %10d %10.0f%% /%5.0f%%%n", count, seconds, jobs / seconds,
+                    ideal, claimMillis, executions.sum() - done.size(),
+                    100.0 * claims.stream().mapToLong(Long::longValue).min().orElse(0) / jobs,
+                    100.0 * claims.stream().mapToLong(Long::longValue).max().orElse(0) / jobs);
+        }
+        jdbc.update("DELETE FROM jobs WHERE type = ?", TYPE);
+    }
+
+    // Straight to the table: enqueueing one transaction at a time would take longer than the drain being measured
+    private void enqueue(JdbcTemplate jdbc) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < jobs; i++) {
+            rows.add(new Object[]{TYPE, random.nextInt(10), now, now});
+            if (rows.size() == INSERT_BATCH || i == jobs - 1) {
+                jdbc.batchUpdate("INSERT INTO jobs (type, priority, status, attempts, max_attempts, visible_at, created_at) " +
+                        "VALUES (?, ?, 'PENDING', 0, 5, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.college.paperless.loadtest;
+
+import com.college.paperless.PaperlessApplication;
+import com.college.paperless.entity.User;
+import com.college.paperless.repository.UserRepository;
+import com.college.paperless.security.JwtTokenUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load test: boots the application on an in-memory H2 database in MySQL mode, seeds students and
+ * approvers for every role, then drives the document workflow over HTTP from {@code loadtest.concurrency}
+ * simulated users for {@code loadtest.durationSeconds}.
+ *
+ * A short single-threaded warm-up first walks every role a few times. The report (console and {@code loadtest.report}
+ * JSON) has throughput, latency percentiles and SQL statements per request for each endpoint; the statement counts
+ * come from the X-Query-Count header. Any call over its endpoint's {@code @QueryBudget} fails the run unless
+ * {@code loadtest.enforceQueryBudgets=false}.
+ *
+ * Run with: mvn -Ploadtest compile exec:java -Dloadtest.concurrency=128 -Dloadtest.virtualThreads=true
+ */
+public final class LoadTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final Map<User.UserRole, String> ROLE_PATHS = Map.of(
+            User.UserRole.STUDENT, "student",
+            User.UserRole.MENTOR, "mentor",
+            User.UserRole.HOD, "hod",
+            User.UserRole.DEAN, "dean",
+            User.UserRole.DEAN_ACADEMICS, "dean-academics",
+            User.UserRole.REGISTRAR, "registrar",
+            User.UserRole.COE, "coe",
+            User.UserRole.RND, "rnd",
+            User.UserRole.INDUSTRY_RELATIONS, "industry-relations",
+            User.UserRole.EXAM_CELL, "exam-cell");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        if (config.virtualThreads() && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("loadtest.virtualThreads needs a Java 21+ runtime, this is " + Runtime.version());
+        }
+
+        ConfigurableApplicationContext context = boot(config);
+        int exitCode = 0;
+        try {
+            exitCode = run(context, config);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestConfig config) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.maximum-pool-size", config.dbPoolSize());
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", true);
+        properties.put("paperless.query-count.header", true);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.threads.virtual.enabled", config.virtualThreads());
+        properties.put("paperless.audit.dir", "target/loadtest-audit-" + System.currentTimeMillis());
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener", "OFF");
+        if (!config.admissionControl()) {
+            // Measure the application, not the limiter; pass -Dloadtest.admissionControl=true to keep it on
+            properties.put("paperless.admission.requests-per-second", 1_000_000);
+            properties.put("paperless.admission.request-burst", 1_000_000);
+            properties.put("paperless.admission.uploads-per-minute", 60_000_000);
+            properties.put("paperless.admission.upload-burst", 1_000_000);
+            properties.put("paperless.admission.upload-concurrency", 10_000);
+            properties.put("paperless.admission.read-concurrency", 10_000);
+        }
+        // As command-line arguments, so they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(PaperlessApplication.class).run(args);
+    }
+
+    private static int run(ConfigurableApplicationContext context, LoadTestConfig config) throws Exception {
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        Map<String, List<WorkflowScenario.Actor>> actors = seedUsers(context, config);
+        ExecutorService httpExecutor = Executors.newCachedThreadPool(daemonThreads("loadtest-http"));
+        ApiClient client = new ApiClient(port, httpExecutor);
+        WorkflowScenario scenario = new WorkflowScenario(client, objectMapper, config, samplePdf(config.pdfPages()), actors);
+
+        System.out.printf("Seeded %d students and %d approvers per role; warming up...%n",
+                config.students(), config.approversPerRole());
+        List<WorkflowScenario.Session> warmup = new ArrayList<>();
+        warmup.add(scenario.new Session(actors.get("student").get(0)));
+        for (String role : WorkflowScenario.APPROVER_ROLES) {
+            warmup.add(scenario.new Session(actors.get(role).get(0)));
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            // Several passes so documents reach the later roles of the chain
+            for (int pass = 0; pass < 6; pass++) {
+                for (WorkflowScenario.Session session : warmup) {
+                    session.iterate();
+                }
+            }
+        }
+
+        System.out.printf("Running %d simulated users for %ds on %s threads...%n", config.concurrency(),
+                config.durationSeconds(), config.virtualThreads() ? "virtual" : "platform");
+        client.startMeasurement();
+        statistics.clear();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(config.concurrency());
+        ExecutorService users = userExecutor(config);
+        List<WorkflowScenario.Actor> assignment = assignActors(actors, config.concurrency());
+        for (WorkflowScenario.Actor actor : assignment) {
+            WorkflowScenario.Session session = scenario.new Session(actor);
+            users.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        session.iterate();
+                    }
+                } catch (Exception e) {
+                    if (failures.incrementAndGet() <= 5) {
+                        e.printStackTrace();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        users.shutdownNow();
+        httpExecutor.shutdownNow();
+
+        report(client, statistics, config, elapsed, failures.get(), objectMapper);
+
+        if (!client.budgetViolations().isEmpty()) {
+            System.out.println();
+            for (ApiClient.BudgetViolation violation : client.budgetViolations()) {
+                System.out.printf("QUERY BUDGET EXCEEDED: %s issued %d SQL statements, budget is %d%n",
+                        violation.endpoint(), violation.statements(), violation.budget());
+            }
+            return config.enforceQueryBudgets() ? 2 : 0;
+        }
+        return 0;
+    }
+
+    private static Map<String, List<WorkflowScenario.Actor>> seedUsers(ConfigurableApplicationContext context,
+                                                                        LoadTestConfig config) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtTokenUtil jwtTokenUtil = context.getBean(JwtTokenUtil.class);
+        Map<String, List<WorkflowScenario.Actor>> actors = new LinkedHashMap<>();
+        for (Map.Entry<User.UserRole, String> entry : ROLE_PATHS.entrySet()) {
+            int count = entry.getKey() == User.UserRole.STUDENT ? config.students() : config.approversPerRole();
+            List<User> users = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                User user = new User();
+                user.setEmail(entry.getValue() + i + "@loadtest.veltech.edu.in");
+                user.setUsername(entry.getValue() + i);
+                user.setName(entry.getValue() + " " + i);
+                user.setDepartment("CSE");
+                user.setVtuNumber(entry.getKey() == User.UserRole.STUDENT ? "VTU" + (10000 + i) : null);
+                user.setRole(entry.getKey());
+                users.add(user);
+            }
+            List<WorkflowScenario.Actor> roleActors = new ArrayList<>(count);
+            for (User user : userRepository.saveAll(users)) {
+                String token = jwtTokenUtil.generateToken(user.getEmail(), user.getId(), entry.getKey().name());
+                roleActors.add(new WorkflowScenario.Actor(user.getId(), entry.getValue(), token));
+            }
+            actors.put(entry.getValue(), roleActors);
+        }
+        return actors;
+    }
+
+    // Half the simulated users are students; the rest are spread over the approver roles, at least one each
+    private static List<WorkflowScenario.Actor> assignActors(Map<String, List<WorkflowScenario.Actor>> actors,
+                                                             int concurrency) {
+        List<WorkflowScenario.Actor> assignment = new ArrayList<>(concurrency);
+        int approverRoles = WorkflowScenario.APPROVER_ROLES.size();
+        int students = Math.max(1, concurrency - Math.max(approverRoles, concurrency / 2));
+        for (int i = 0; i < students; i++) {
+            List<WorkflowScenario.Actor> pool = actors.get("student");
+            assignment.add(pool.get(i % pool.size()));
+        }
+        for (int i = 0; assignment.size() < Math.max(concurrency, students + approverRoles); i++) {
+            List<WorkflowScenario.Actor> pool = actors.get(WorkflowScenario.APPROVER_ROLES.get(i % approverRoles));
+            assignment.add(pool.get((i / approverRoles) % pool.size()));
+        }
+        return assignment;
+    }
+
+    private static ExecutorService userExecutor(LoadTestConfig config) {
+        if (config.virtualThreads()) {
+            ThreadFactory factory = new VirtualThreadTaskExecutor("loadtest-user-").getVirtualThreadFactory();
+            return Executors.newFixedThreadPool(config.concurrency(), factory);
+        }
+        return Executors.newFixedThreadPool(config.concurrency(), daemonThreads("loadtest-user"));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static byte[] samplePdf(int pages) throws IOException {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage();
+                pdf.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Load test certificate, page " + (i + 1));
+                    content.endText();
+                }
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void report(ApiClient client, Statistics statistics, LoadTestConfig config, double elapsed,
+                               int failures, ObjectMapper objectMapper) throws IOException {
+        Map<String, EndpointStats> stats = client.stats();
+        long totalRequests = stats.values().stream().mapToLong(EndpointStats::count).sum();
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-52s %8s %9s %8s %8s %8s %8s %6s %6s %6s %6s %6s%n", "endpoint", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "max ms", "304", "409", "err", "stmts", "budget");
+        stats.entrySet().stream()
+                .sorted(Comparator.comparing(Map.Entry::getKey))
+                .forEach(entry -> {
+                    Map<String, Object> summary = entry.getValue().summary(elapsed);
+                    endpoints.put(entry.getKey(), summary);
+                    System.out.printf("%-52s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %6d %6d %6d %6s %6s%n", entry.getKey(),
+                            summary.get("requests"), summary.get("throughputPerSecond"), summary.get("p50Ms"),
+                            summary.get("p90Ms"), summary.get("p99Ms"), summary.get("maxMs"),
+                            summary.get("notModified"), summary.get("conflicts"), summary.get("errors"),
+                            summary.get("statementsPerRequest"), summary.get("queryBudget"));
+                });
+
+        double statementsPerRequest = totalRequests == 0 ? 0 : (double) statistics.getPrepareStatementCount() / totalRequests;
+        System.out.printf("%nTotal: %d requests in %.1fs = %.1f req/s, %.1f SQL statements per request, %d worker failures%n",
+                totalRequests, elapsed, totalRequests / elapsed, statementsPerRequest, failures);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("elapsedSeconds", elapsed);
+        report.put("totalRequests", totalRequests);
+        report.put("throughputPerSecond", totalRequests / elapsed);
+        report.put("statementsPerRequest", statementsPerRequest);
+        report.put("transactions", statistics.getTransactionCount());
+        report.put("workerFailures", failures);
+        report.put("endpoints", endpoints);
+        report.put("queryBudgetViolations", client.budgetViolations());
+        Path file = Path.of(config.reportFile());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,33 @@
+package com.college.paperless.loadtest;
+
+// All knobs are system properties so they can be passed straight through mvn -D...
+record LoadTestConfig(
+        int students,
+        int approversPerRole,
+        int concurrency,
+        int durationSeconds,
+        int thinkMillis,
+        int pdfPages,
+        double rejectRate,
+        boolean virtualThreads,
+        boolean admissionControl,
+        int dbPoolSize,
+        boolean enforceQueryBudgets,
+        String reportFile) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.students", 200),
+                Integer.getInteger("loadtest.approversPerRole", 3),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Integer.getInteger("loadtest.durationSeconds", 60),
+                Integer.getInteger("loadtest.thinkMillis", 50),
+                Integer.getInteger("loadtest.pdfPages", 2),
+                Double.parseDouble(System.getProperty("loadtest.rejectRate", "0.1")),
+                Boolean.getBoolean("loadtest.virtualThreads"),
+                Boolean.getBoolean("loadtest.admissionControl"),
+                Integer.getInteger("loadtest.dbPoolSize", 10),
+                Boolean.parseBoolean(System.getProperty("loadtest.enforceQueryBudgets", "true")),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.college.paperless.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Buffers rows and writes them as INSERT ... VALUES (...), (...), ... statements of up to rowsPerStatement rows
+final class MultiRowInsert implements AutoCloseable {
+
+    private final Connection connection;
+    private final String table;
+    private final List<String> columns;
+    private final int rowsPerStatement;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final PreparedStatement fullStatement;
+
+    MultiRowInsert(Connection connection, String table, List<String> columns, int rowsPerStatement) throws SQLException {
+        this.connection = connection;
+        this.table = table;
+        this.columns = columns;
+        this.rowsPerStatement = rowsPerStatement;
+        this.fullStatement = connection.prepareStatement(sql(rowsPerStatement));
+    }
+
+    // Returns the number of rows written to the database by this call
+    int add(Object... values) throws SQLException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException(table + " expects " + columns.size() + " values, got " + values.length);
+        }
+        rows.add(values);
+        if (rows.size() < rowsPerStatement) {
+            return 0;
+        }
+        return write(fullStatement);
+    }
+
+    int flush() throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql(rows.size()))) {
+            return write(statement);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        fullStatement.close();
+    }
+
+    private int write(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                statement.setObject(index++, value);
+            }
+        }
+        statement.executeUpdate();
+        int written = rows.size();
+        rows.clear();
+        return written;
+    }
+
+    private String sql(int rowCount) {
+        String placeholders = "(" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+        return "INSERT INTO " + table + " (" + String.join(",", columns) + ") VALUES "
+                + String.join(",", Collections.nCopies(rowCount, placeholders));
+    }
+}
@@ -0,0 +1,168 @@
+package com.college.paperless.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Speaks just enough of the Redis protocol (RESP2) for the pubsub invalidation transport, so several local
+ * instances can be run against each other without a Redis server: PING, SUBSCRIBE, UNSUBSCRIBE, PUBLISH, CLIENT
+ * (acknowledged and ignored) and QUIT. HELLO is refused, which makes the client fall back to RESP2.
+ *
+ * Start it, then run each instance with INVALIDATION_TRANSPORT=pubsub and
+ * INVALIDATION_REDIS_URI=redis://localhost:&lt;standin.port&gt;. Restarting the stand-in exercises reconnection.
+ */
+public final class PubSubStandIn {
+
+    private final Map<String, Set<Client>> subscribers = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("standin.port", 6379);
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.printf("Pub/sub stand-in listening on port %d%n", port);
+            PubSubStandIn standIn = new PubSubStandIn();
+            while (true) {
+                Socket socket = server.accept();
+                Thread thread = new Thread(standIn.new Client(socket), "standin-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private final class Client implements Runnable {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        @Override
+        public void run() {
+            try (socket; InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                while (true) {
+                    List<String> command = readCommand(in);
+                    if (!handle(command)) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            } finally {
+                channels.forEach(channel -> subscribers.getOrDefault(channel, Set.of()).remove(this));
+            }
+        }
+
+        private boolean handle(List<String> command) throws IOException {
+            String name = command.get(0).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "PING" -> {
+                    if (channels.isEmpty()) {
+                        write("+PONG\r\n");
+                    } else {
+                        write("*2\r\n" + bulk("pong") + bulk(""));
+                    }
+                }
+                case "SUBSCRIBE" -> {
+                    StringBuilder reply = new StringBuilder();
+                    for (String channel : command.subList(1, command.size())) {
+                        channels.add(channel);
+                        subscribers.computeIfAbsent(channel, c -> ConcurrentHashMap.newKeySet()).add(this);
+                        reply.append(subscription("subscribe", channel, channels.size()));
+                    }
+                    write(reply.toString());
+                }
+                case "UNSUBSCRIBE" -> {
+                    List<String> targets = command.size() > 1 ? command.subList(1, command.size()) : List.copyOf(channels);
+                    StringBuilder reply = new StringBuilder();
+                    for (String channel : targets) {
+                        channels.remove(channel);
+                        subscribers.getOrDefault(channel, Set.of()).remove(this);
+                        reply.append(subscription("unsubscribe", channel, channels.size()));
+                    }
+                    write(reply.toString());
+                }
+                case "PUBLISH" -> {
+                    Set<Client> receivers = subscribers.getOrDefault(command.get(1), Set.of());
+                    String message = "*3\r\n" + bulk("message") + bulk(command.get(1)) + bulk(command.get(2));
+                    int delivered = 0;
+                    for (Client receiver : receivers) {
+                        try {
+                            receiver.write(message);
+                            delivered++;
+                        } catch (IOException e) {
+                            receivers.remove(receiver);
+                        }
+                    }
+                    write(":" + delivered + "\r\n");
+                }
+                case "CLIENT" -> write("+OK\r\n");
+                case "QUIT" -> {
+                    write("+OK\r\n");
+                    return false;
+                }
+                default -> write("-ERR unknown command '" + command.get(0) + "'\r\n");
+            }
+            return true;
+        }
+
+        private synchronized void write(String reply) throws IOException {
+            out.write(reply.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private static String subscription(String kind, String channel, int count) {
+        return "*3\r\n" + bulk(kind) + bulk(channel) + ":" + count + "\r\n";
+    }
+
+    private static String bulk(String value) {
+        return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header.isEmpty() || header.charAt(0) != '*') {
+            return List.of(header.split(" "));
+        }
+        int count = Integer.parseInt(header.substring(1));
+        String[] parts = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] value = in.readNBytes(length);
+            readLine(in);
+            parts[i] = new String(value, StandardCharsets.UTF_8);
+        }
+        return List.of(parts);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.college.paperless.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * What each simulated user does in one iteration.
+ *
+ * Students upload a PDF and forward it to a mentor, then occasionally refresh their list. Approvers poll their
+ * pending inbox (with the ETag from the previous poll), approve or reject each document and forward approved ones
+ * along the chain: mentor -> HOD -> dean -> dean academics / industry relations / R&D / CoE -> registrar / exam cell.
+ */
+final class WorkflowScenario {
+
+    record Actor(long id, String role, String token) {
+    }
+
+    // A forward target with its relative weight; a null path ends the chain at this role
+    private record Route(String path, double weight) {
+    }
+
+    private static final Map<String, List<Route>> ROUTES = Map.of(
+            "mentor", List.of(new Route("/forward-to-hod", 1)),
+            "hod", List.of(new Route("/forward-to-dean", 1)),
+            "dean", List.of(
+                    new Route("/forward-to-dean-academics", 0.5),
+                    new Route("/forward-to-industry-relations", 0.2),
+                    new Route("/forward-to-rnd", 0.15),
+                    new Route("/forward-to-coe", 0.15)),
+            "dean-academics", List.of(
+                    new Route("/forward-to-registrar", 0.6),
+                    new Route("/forward-to-exam-cell", 0.4)),
+            "registrar", List.of(new Route(null, 1)),
+            "coe", List.of(new Route("/forward-to-exam-cell", 1)),
+            "rnd", List.of(new Route(null, 1)),
+            "industry-relations", List.of(
+                    new Route("/forward-to-dean-academics", 0.5),
+                    new Route(null, 0.5)),
+            "exam-cell", List.of(new Route(null, 1)));
+
+    static final List<String> APPROVER_ROLES = List.of(
+            "mentor", "hod", "dean", "dean-academics", "registrar", "coe", "rnd", "industry-relations", "exam-cell");
+
+    private final ApiClient client;
+    private final ObjectMapper objectMapper;
+    private final LoadTestConfig config;
+    private final byte[] pdf;
+    private final Map<String, List<Actor>> actorsByRole;
+
+    WorkflowScenario(ApiClient client, ObjectMapper objectMapper, LoadTestConfig config, byte[] pdf,
+                     Map<String, List<Actor>> actorsByRole) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.pdf = pdf;
+        this.actorsByRole = actorsByRole;
+    }
+
+    // Per-thread state: the inbox ETag survives between iterations
+    final class Session {
+        private final Actor actor;
+        private String etag;
+
+        Session(Actor actor) {
+            this.actor = actor;
+        }
+
+        void iterate() throws InterruptedException {
+            if ("student".equals(actor.role())) {
+                studentIteration();
+            } else {
+                approverIteration();
+            }
+            if (config.thinkMillis() > 0) {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(config.thinkMillis() * 2 + 1));
+            }
+        }
+
+        private void studentIteration() {
+            ApiClient.Response uploaded = client.upload("POST /api/student/upload", "/api/student/upload",
+                    actor.token(), "certificate.pdf", pdf, "Load test document");
+            if (uploaded.status() == 200) {
+                long documentId = readId(uploaded.body());
+                Actor mentor = pick("mentor");
+                client.post("POST /api/student/forward/{id}",
+                        "/api/student/forward/" + documentId + "?mentorId=" + mentor.id(), actor.token());
+            }
+            if (ThreadLocalRandom.current().nextDouble() < 0.3) {
+                ApiClient.Response list = client.get("GET /api/student/documents", "/api/student/documents",
+                        actor.token(), etag);
+                if (list.etag() != null) {
+                    etag = list.etag();
+                }
+            }
+        }
+
+        private void approverIteration() {
+            String base = "/api/" + actor.role();
+            ApiClient.Response inbox = client.get("GET " + base + "/pending-documents",
+                    base + "/pending-documents?size=20", actor.token(), etag);
+            if (inbox.etag() != null) {
+                etag = inbox.etag();
+            }
+            if (inbox.status() != 200) {
+                return;
+            }
+            for (long documentId : readContentIds(inbox.body())) {
+                if (ThreadLocalRandom.current().nextDouble() < config.rejectRate()) {
+                    client.postJson("POST " + base + "/reject", base + "/reject", actor.token(),
+                            "{\"documentId\":" + documentId + ",\"rejectionReason\":\"Incomplete\"}");
+                    continue;
+                }
+                ApiClient.Response approved = client.postJson("POST " + base + "/approve", base + "/approve",
+                        actor.token(), "{\"documentId\":" + documentId + "}");
+                if (approved.status() == 200) {
+                    forward(base, documentId);
+                }
+            }
+        }
+
+        private void forward(String base, long documentId) {
+            Route route = chooseRoute(ROUTES.get(actor.role()));
+            if (route.path() == null) {
+                return;
+            }
+            // Mentor and HOD choose a specific next approver; the other roles let the server pick one
+            String body = switch (actor.role()) {
+                case "mentor" -> "{\"documentId\":" + documentId + ",\"mentorId\":" + pick("hod").id() + "}";
+                case "hod" -> "{\"documentId\":" + documentId + ",\"targetUserId\":" + pick("dean").id() + "}";
+                default -> "{\"documentId\":" + documentId + "}";
+            };
+            client.postJson("POST " + base + route.path(), base + route.path(), actor.token(), body);
+        }
+    }
+
+    private Actor pick(String role) {
+        List<Actor> actors = actorsByRole.get(role);
+        return actors.get(ThreadLocalRandom.current().nextInt(actors.size()));
+    }
+
+    private static Route chooseRoute(List<Route> routes) {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        double cumulative = 0;
+        for (Route route : routes) {
+            cumulative += route.weight();
+            if (roll < cumulative) {
+                return route;
+            }
+        }
+        return routes.get(routes.size() - 1);
+    }
+
+    private long readId(String json) {
+        try {
+            return objectMapper.readTree(json).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected upload response: " + json, e);
+        }
+    }
+
+    private List<Long> readContentIds(String json) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (JsonNode document : objectMapper.readTree(json).path("content")) {
+                ids.add(document.get("id").asLong());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected inbox response: " + json, e);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.college.paperless.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limits and bulkheads for the API, by endpoint class:
+ * uploads (the multipart body is read fully into memory), downloads (each streams up to a whole file) and plain reads
+ * each get their own concurrency cap, so a flood of uploads or downloads cannot starve inbox polling. PDF stamping
+ * runs on the job workers, which cap it by themselves.
+ * Every caller is additionally held to a per-user request rate, with a tighter one for uploads.
+ */
+@Component
+public class AdmissionControl {
+
+    private final TokenBucketRateLimiter requestLimiter;
+    private final TokenBucketRateLimiter uploadLimiter;
+    private final Bulkhead uploadBulkhead;
+    private final Bulkhead downloadBulkhead;
+    private final Bulkhead readBulkhead;
+
+    public AdmissionControl(
+            @Value("${paperless.admission.requests-per-second:20}") double requestsPerSecond,
+            @Value("${paperless.admission.request-burst:40}") int requestBurst,
+            @Value("${paperless.admission.uploads-per-minute:10}") double uploadsPerMinute,
+            @Value("${paperless.admission.upload-burst:3}") int uploadBurst,
+            @Value("${paperless.admission.upload-concurrency:4}") int uploadConcurrency,
+            @Value("${paperless.admission.download-concurrency:8}") int downloadConcurrency,
+            @Value("${paperless.admission.read-concurrency:64}") int readConcurrency,
+            @Value("${paperless.admission.max-wait-ms:250}") long maxWaitMillis) {
+        this.requestLimiter = new TokenBucketRateLimiter("requests", requestsPerSecond, requestBurst);
+        this.uploadLimiter = new TokenBucketRateLimiter("uploads", uploadsPerMinute / 60.0, uploadBurst);
+        this.uploadBulkhead = new Bulkhead("upload", uploadConcurrency, maxWaitMillis);
+        this.downloadBulkhead = new Bulkhead("download", downloadConcurrency, maxWaitMillis);
+        this.readBulkhead = new Bulkhead("read", readConcurrency, maxWaitMillis);
+    }
+
+    // Limiters that apply to this request, most specific last
+    public List<TokenBucketRateLimiter> limitersFor(HttpServletRequest request) {
+        return isUpload(request) ? List.of(requestLimiter, uploadLimiter) : List.of(requestLimiter);
+    }
+
+    // Null when the request is cheap enough to run outside any bulkhead (small writes such as approve/forward/reject)
+    public Bulkhead bulkheadFor(HttpServletRequest request) {
+        if (isUpload(request)) {
+            return uploadBulkhead;
+        }
+        if (isDownload(request)) {
+            return downloadBulkhead;
+        }
+        if ("GET".equals(request.getMethod())) {
+            return readBulkhead;
+        }
+        return null;
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return List.of(uploadBulkhead, downloadBulkhead, readBulkhead);
+    }
+
+    public List<TokenBucketRateLimiter> getLimiters() {
+        return List.of(requestLimiter, uploadLimiter);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> bulkheads = new LinkedHashMap<>();
+        for (Bulkhead bulkhead : getBulkheads()) {
+            bulkheads.put(bulkhead.getName(), bulkhead.getStatistics());
+        }
+        Map<String, Object> limiters = new LinkedHashMap<>();
+        for (TokenBucketRateLimiter limiter : getLimiters()) {
+            limiters.put(limiter.getName(), limiter.getStatistics());
+        }
+        stats.put("bulkheads", bulkheads);
+        stats.put("rateLimiters", limiters);
+        return stats;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        requestLimiter.evictIdle();
+        uploadLimiter.evictIdle();
+    }
+
+    private static boolean isUpload(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return "POST".equals(request.getMethod())
+                && contentType != null && contentType.startsWith("multipart/");
+    }
+
+    // GET /api/<role>/document/{id}/download on every role's controller
+    private static boolean isDownload(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/download");
+    }
+}
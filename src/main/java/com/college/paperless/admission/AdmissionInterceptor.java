@@ -0,0 +1,77 @@
+package com.college.paperless.admission;
+
+import com.college.paperless.security.JwtAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link AdmissionControl} before a handler runs. Rejected requests get 429 with a Retry-After header
+ * and the same error body as {@code GlobalExceptionHandler}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String BULKHEAD_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".bulkhead";
+
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        String client = clientKey(request);
+        for (TokenBucketRateLimiter limiter : admissionControl.limitersFor(request)) {
+            long waitNanos = limiter.tryAcquire(client);
+            if (waitNanos > 0) {
+                reject(response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1, "Too many requests, slow down");
+                return false;
+            }
+        }
+
+        Bulkhead bulkhead = admissionControl.bulkheadFor(request);
+        if (bulkhead != null) {
+            if (!bulkhead.tryEnter()) {
+                reject(response, 1, "Server is busy, please retry shortly");
+                return false;
+            }
+            request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object bulkhead = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            ((Bulkhead) bulkhead).exit();
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("message", message, "error", "Too Many Requests"));
+    }
+}
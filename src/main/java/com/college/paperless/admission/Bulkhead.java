@@ -0,0 +1,77 @@
+package com.college.paperless.admission;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many requests of one kind run at once, so a burst of heavy work cannot take every worker thread,
+ * connection and megabyte of heap from the rest. Callers wait at most maxWaitMillis for a slot.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int limit;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int limit, long maxWaitMillis) {
+        this.name = name;
+        this.limit = limit;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(limit);
+    }
+
+    public boolean tryEnter() {
+        boolean entered;
+        try {
+            entered = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            rejected.increment();
+            return false;
+        }
+        admitted.increment();
+        peak.accumulateAndGet(getInUse(), Math::max);
+        return true;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "limit", limit,
+                "inUse", getInUse(),
+                "waiting", permits.getQueueLength(),
+                "peak", peak.get(),
+                "admitted", admitted.sum(),
+                "rejected", rejected.sum());
+    }
+}
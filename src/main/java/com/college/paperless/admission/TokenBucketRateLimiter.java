@@ -0,0 +1,72 @@
+package com.college.paperless.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key token bucket kept as a single "theoretical arrival time" per key (the GCRA form of a token bucket).
+ *
+ * Acquiring is one CAS on that key's AtomicLong, so callers never block each other and different keys never
+ * contend; the ConcurrentHashMap holding the buckets is itself striped. A key that has been idle long enough
+ * to refill its whole burst carries no state and is dropped by {@link #evictIdle()}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucketRateLimiter(String name, double permitsPerSecond, int burst) {
+        this.name = name;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    // Returns 0 when admitted, otherwise the nanoseconds until a token is available
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current - now, 0) + now + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                admitted.increment();
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(arrival -> arrival.get() - now <= 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "permitsPerSecond", (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos,
+                "burst", burstNanos / intervalNanos,
+                "trackedKeys", buckets.size(),
+                "admitted", admitted.sum(),
+                "rejected", rejected.sum());
+    }
+}
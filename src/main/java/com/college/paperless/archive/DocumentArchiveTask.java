@@ -0,0 +1,66 @@
+package com.college.paperless.archive;
+
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.scheduler.MaintenanceTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Archives the content of completed documents (see {@link com.college.paperless.entity.Document.DocumentStatus#isTerminal})
+ * uploaded more than min-age ago, walking the documents in id order so every batch picks up where the last one
+ * ended. The documents rows stay where they are, so inboxes and history pages are unchanged; only their blobs
+ * leave the table, and downloads read them back from the archive.
+ */
+@Component
+public class DocumentArchiveTask implements MaintenanceTask {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentArchiver archiver;
+    private final Duration minAge;
+    private final Duration interval;
+    private final int batchSize;
+
+    public DocumentArchiveTask(DocumentRepository documentRepository, DocumentArchiver archiver,
+                               @Value("${paperless.archive.min-age:180d}") Duration minAge,
+                               @Value("${paperless.archive.interval:6h}") Duration interval,
+                               @Value("${paperless.archive.batch-size:20}") int batchSize) {
+        this.documentRepository = documentRepository;
+        this.archiver = archiver;
+        this.minAge = minAge;
+        this.interval = interval;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String getName() {
+        return "documents.archive";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public long run(Context context) throws InterruptedException {
+        LocalDateTime uploadedBefore = LocalDateTime.now().minus(minAge);
+        long afterId = 0;
+        long archived = 0;
+        while (context.awaitQuiet()) {
+            List<Long> ids = documentRepository.findArchivable(afterId, uploadedBefore, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            archived += archiver.archive(ids);
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,58 @@
+package com.college.paperless.archive;
+
+import com.college.paperless.entity.DocumentArchive;
+import com.college.paperless.repository.DocumentArchiveRepository;
+import com.college.paperless.repository.DocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Moves the content of a batch of documents into document_archive, compressed, in one transaction per batch. Each
+ * row is cleared only if its data version is the one read, so a stamp committed in between keeps its content in
+ * the documents row and the document is archived again on a later run.
+ */
+@Component
+public class DocumentArchiver {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentArchiveRepository archiveRepository;
+    private final Counter archived;
+    private final Counter originalBytes;
+    private final Counter storedBytes;
+
+    public DocumentArchiver(DocumentRepository documentRepository, DocumentArchiveRepository archiveRepository,
+                            MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        this.archiveRepository = archiveRepository;
+        this.archived = Counter.builder("paperless.archive.documents").register(meterRegistry);
+        this.originalBytes = Counter.builder("paperless.archive.bytes").tag("stage", "original")
+                .baseUnit("bytes").register(meterRegistry);
+        this.storedBytes = Counter.builder("paperless.archive.bytes").tag("stage", "stored")
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    // Returns the number of documents archived
+    @Transactional
+    public int archive(List<Long> ids) {
+        int count = 0;
+        for (Object[] row : documentRepository.findDataByIds(ids)) {
+            Long id = (Long) row[0];
+            int dataVersion = ((Number) row[1]).intValue();
+            byte[] data = (byte[]) row[2];
+            if (!documentRepository.clearDataIfUnchanged(id, dataVersion)) {
+                continue;
+            }
+            // Replaces the copy left by an earlier archiving when a stamp brought the content back since
+            DocumentArchive archive = archiveRepository.save(DocumentArchive.of(id, dataVersion, data));
+            originalBytes.increment(data.length);
+            storedBytes.increment(archive.getContent().length);
+            count++;
+        }
+        archived.increment(count);
+        return count;
+    }
+}
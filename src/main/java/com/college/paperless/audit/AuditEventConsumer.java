@@ -0,0 +1,28 @@
+package com.college.paperless.audit;
+
+import com.college.paperless.event.DocumentEventConsumer;
+import com.college.paperless.event.DocumentTransitionEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AuditEventConsumer implements DocumentEventConsumer {
+
+    private final AuditLog auditLog;
+
+    @Override
+    public String getName() {
+        return "audit";
+    }
+
+    @Override
+    public void onEvent(DocumentTransitionEvent event) {
+        StringBuilder detail = new StringBuilder(event.getTransition()).append(' ')
+                .append(event.getFromStatus()).append(" -> ").append(event.getToStatus());
+        if (event.getRejectionReason() != null) {
+            detail.append(": ").append(event.getRejectionReason());
+        }
+        auditLog.recordTransition(event.getDocumentId(), event.getActorId(), event.getAssigneeId(), detail.toString());
+    }
+}
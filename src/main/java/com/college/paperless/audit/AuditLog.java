@@ -0,0 +1,202 @@
+package com.college.paperless.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of workflow transitions, downloads and role changes, kept in memory-mapped segment
+ * files under {@code paperless.audit.dir}. Appends only copy into the mapping; dirty pages are forced to disk
+ * once a second and whenever a segment rolls. Lookups by document or user go through each segment's sparse
+ * index, so the trail is served without touching MySQL. A segment that rolls writes its index next to it, and
+ * startup only scans the active segment. Sealed segments whose newest record is older than
+ * {@code paperless.audit.retention} are deleted.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_DETAIL_BYTES = 2000;
+
+    @Value("${paperless.audit.dir:./audit}")
+    private String auditDir;
+
+    @Value("${paperless.audit.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${paperless.audit.retention:400d}")
+    private Duration retention;
+
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile AuditSegment active;
+    private int nextNumber;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Paths.get(auditDir);
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> existing = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+            for (int i = 0; i < existing.size(); i++) {
+                Path path = existing.get(i);
+                boolean sealed = i < existing.size() - 1;
+                AuditSegment segment = new AuditSegment(path, (int) Math.max(Files.size(path), segmentSize), sealed);
+                // Segments written before sidecar indexes existed are scanned once more, then indexed
+                if (sealed && !segment.hasIndexFile()) {
+                    writeIndex(segment);
+                }
+                segments.add(segment);
+            }
+            nextNumber = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1)) + 1;
+        }
+        if (segments.isEmpty()) {
+            segments.add(newSegment());
+        }
+        active = segments.get(segments.size() - 1);
+        log.info("Audit log opened with {} segment(s) in {}", segments.size(), dir.toAbsolutePath());
+        expire();
+    }
+
+    public void recordTransition(Long documentId, Long actorId, Long assigneeId, String detail) {
+        append(AuditRecord.Type.TRANSITION, documentId, actorId, assigneeId, detail);
+    }
+
+    public void recordDownload(Long documentId, Long userId) {
+        append(AuditRecord.Type.DOWNLOAD, documentId, userId, null, null);
+    }
+
+    public void recordRoleChange(Long userId, Long actorId, String role) {
+        append(AuditRecord.Type.ROLE_CHANGE, null, actorId, userId, role);
+    }
+
+    public List<AuditRecord> findByDocument(Long documentId) {
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            segment.findByDocument(documentId, records);
+        }
+        return records;
+    }
+
+    public List<AuditRecord> findByUser(Long userId) {
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            segment.findByUser(userId, records);
+        }
+        return records;
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void flush() {
+        active.force();
+    }
+
+    // Deletes sealed segments whose newest record is past retention; the active segment is never deleted
+    @Scheduled(initialDelay = 3_600_000, fixedDelay = 3_600_000)
+    public void expire() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        List<AuditSegment> expired = new ArrayList<>();
+        writeLock.lock();
+        try {
+            for (AuditSegment segment : segments) {
+                if (segment != active && segment.lastMillis() < cutoff) {
+                    expired.add(segment);
+                }
+            }
+            segments.removeAll(expired);
+        } finally {
+            writeLock.unlock();
+        }
+        // Lookups already iterating keep reading the mapping, which outlives the channel and the file
+        for (AuditSegment segment : expired) {
+            try {
+                segment.close();
+                segment.delete();
+                log.info("Deleted audit segment {} past the {} retention", segment.getPath().getFileName(), retention);
+            } catch (IOException e) {
+                log.warn("Failed to delete expired audit segment {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (AuditSegment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void append(AuditRecord.Type type, Long documentId, Long actorId, Long subjectId, String detail) {
+        byte[] bytes = detail == null ? new byte[0] : detail.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_DETAIL_BYTES) {
+            bytes = Arrays.copyOf(bytes, MAX_DETAIL_BYTES);
+        }
+        int encodedSize = AuditSegment.encodedSize(bytes);
+        long now = System.currentTimeMillis();
+
+        writeLock.lock();
+        try {
+            AuditSegment segment = active;
+            if (!segment.hasRoomFor(encodedSize)) {
+                segment.force();
+                writeIndex(segment);
+                segment = newSegment();
+                segments.add(segment);
+                active = segment;
+            }
+            segment.append(now, type, documentId, actorId, subjectId, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll audit segment", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private AuditSegment newSegment() throws IOException {
+        Path path = Paths.get(auditDir).resolve(String.format("%s%010d%s", SEGMENT_PREFIX, nextNumber++, SEGMENT_SUFFIX));
+        return new AuditSegment(path, segmentSize, false);
+    }
+
+    // Without its sidecar a sealed segment is scanned at the next startup instead
+    private void writeIndex(AuditSegment segment) {
+        try {
+            segment.writeIndex();
+        } catch (IOException e) {
+            log.warn("Failed to write the index of audit segment {}: {}", segment.getPath(), e.getMessage());
+        }
+    }
+
+    private static int number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
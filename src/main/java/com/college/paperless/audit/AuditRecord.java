@@ -0,0 +1,32 @@
+package com.college.paperless.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+
+    public enum Type {
+        TRANSITION,
+        DOWNLOAD,
+        ROLE_CHANGE
+    }
+
+    private LocalDateTime occurredAt;
+    private Type type;
+    private Long documentId;
+
+    // User who performed the action (null when unknown, e.g. role changes made through set-role)
+    private Long actorId;
+
+    // User the action was aimed at: the new assignee of a forward, or the user whose role changed
+    private Long subjectUserId;
+
+    // Transition and status change, role name, or rejection reason
+    private String detail;
+}
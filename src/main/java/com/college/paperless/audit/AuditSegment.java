@@ -0,0 +1,374 @@
+package com.college.paperless.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-size, memory-mapped audit file. Records are appended as
+ * [int length][int crc32][long millis][byte type][long documentId][long actorId][long subjectId][short n][n bytes detail]
+ * where length covers everything after the length field. A zero length marks the end of written data.
+ *
+ * The index is sparse: one entry per block of {@link #BLOCK_RECORDS} records, holding where the block starts and a
+ * Bloom filter of the document and user ids in it. A lookup scans forward through the blocks whose filter matches.
+ * Sealed segments keep the index in a sidecar file next to the data, so opening them does not read the records.
+ *
+ * Only the owning {@link AuditLog} writes, under its lock; readers only look at positions below {@link #size()}.
+ */
+class AuditSegment {
+
+    static final int HEADER_BYTES = 4;
+    static final String INDEX_SUFFIX = ".idx";
+    static final int BLOCK_RECORDS = 256;
+    private static final int FIXED_BODY_BYTES = 4 + 8 + 1 + 8 + 8 + 8 + 2;
+    private static final int DOCUMENT_OFFSET = HEADER_BYTES + 4 + 8 + 1;
+    private static final int ACTOR_OFFSET = DOCUMENT_OFFSET + 8;
+    private static final int SUBJECT_OFFSET = ACTOR_OFFSET + 8;
+    private static final long NONE = -1L;
+
+    // 8192 bits per block: about 13 bits per id at two to three ids per record, under 0.5% false positives
+    private static final int FILTER_LONGS = 128;
+    private static final int FILTER_HASHES = 6;
+    private static final int INDEX_MAGIC = 0x41494458;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private volatile int size;
+    private volatile long lastMillis;
+    private int lastPosition = -1;
+
+    // Block starts and filters; a reader takes blockCount after size and sees every block below it
+    private volatile int[] blockStarts = new int[16];
+    private volatile long[][] blockFilters = new long[16][];
+    private volatile int blockCount;
+    private int recordsInBlock;
+
+    AuditSegment(Path path, int capacity, boolean sealed) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (!sealed || !loadIndex()) {
+            recover();
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Time of the newest record, 0 when the segment is empty
+    long lastMillis() {
+        return lastMillis;
+    }
+
+    static int encodedSize(byte[] detail) {
+        return HEADER_BYTES + FIXED_BODY_BYTES + detail.length;
+    }
+
+    boolean hasRoomFor(int encodedSize) {
+        // Keep room for the zero length that terminates the segment
+        return size + encodedSize + HEADER_BYTES <= capacity;
+    }
+
+    void append(long millis, AuditRecord.Type type, Long documentId, Long actorId, Long subjectId, byte[] detail) {
+        int position = size;
+        int length = FIXED_BODY_BYTES + detail.length;
+
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + HEADER_BYTES + 4);
+        body.putLong(millis);
+        body.put((byte) type.ordinal());
+        body.putLong(orNone(documentId));
+        body.putLong(orNone(actorId));
+        body.putLong(orNone(subjectId));
+        body.putShort((short) detail.length);
+        body.put(detail);
+
+        buffer.putInt(position + HEADER_BYTES, crc(position + HEADER_BYTES + 4, length - 4));
+        // Length goes last so a torn write is never mistaken for a complete record
+        buffer.putInt(position, length);
+
+        index(position, millis, documentId, actorId, subjectId);
+        size = position + HEADER_BYTES + length;
+    }
+
+    void findByDocument(long documentId, List<AuditRecord> into) {
+        scan(documentKey(documentId), position -> buffer.getLong(position + DOCUMENT_OFFSET) == documentId, into);
+    }
+
+    void findByUser(long userId, List<AuditRecord> into) {
+        scan(userKey(userId), position -> buffer.getLong(position + ACTOR_OFFSET) == userId
+                || buffer.getLong(position + SUBJECT_OFFSET) == userId, into);
+    }
+
+    AuditRecord read(int position) {
+        ByteBuffer view = buffer.duplicate();
+        int length = view.getInt(position);
+        view.position(position + HEADER_BYTES + 4);
+        long millis = view.getLong();
+        AuditRecord.Type type = AuditRecord.Type.values()[view.get()];
+        long documentId = view.getLong();
+        long actorId = view.getLong();
+        long subjectId = view.getLong();
+        byte[] detail = new byte[view.getShort()];
+        view.get(detail);
+        if (FIXED_BODY_BYTES + detail.length != length) {
+            throw new IllegalStateException("Corrupt audit record at " + path + ":" + position);
+        }
+        return new AuditRecord(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()),
+                type,
+                fromNone(documentId),
+                fromNone(actorId),
+                fromNone(subjectId),
+                detail.length == 0 ? null : new String(detail, StandardCharsets.UTF_8));
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // Writes the sidecar index of a segment that takes no more appends
+    void writeIndex() throws IOException {
+        int blocks = blockCount;
+        ByteBuffer out = ByteBuffer.allocate(4 + 4 + 4 + 8 + 4 + blocks * 4 + blocks * FILTER_LONGS * 8 + 4);
+        out.putInt(INDEX_MAGIC).putInt(size).putInt(lastPosition).putLong(lastMillis).putInt(blocks);
+        for (int b = 0; b < blocks; b++) {
+            out.putInt(blockStarts[b]);
+        }
+        for (int b = 0; b < blocks; b++) {
+            for (long word : blockFilters[b]) {
+                out.putLong(word);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+
+        Path index = indexPath(path);
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        Files.write(temp, out.array());
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    boolean hasIndexFile() {
+        return Files.exists(indexPath(path));
+    }
+
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexPath(path));
+        Files.deleteIfExists(path);
+    }
+
+    static Path indexPath(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + INDEX_SUFFIX);
+    }
+
+    private void scan(long key, IntPredicate matches, List<AuditRecord> into) {
+        int end = size;
+        int blocks = blockCount;
+        int[] starts = blockStarts;
+        long[][] filters = blockFilters;
+        for (int b = 0; b < blocks; b++) {
+            if (!mightContain(filters[b], key)) {
+                continue;
+            }
+            int blockEnd = b + 1 < blocks ? Math.min(starts[b + 1], end) : end;
+            for (int position = starts[b]; position < blockEnd; position += HEADER_BYTES + buffer.getInt(position)) {
+                if (matches.test(position)) {
+                    into.add(read(position));
+                }
+            }
+        }
+    }
+
+    // Rebuilds the write position and the index, stopping at the first missing or torn record
+    private void recover() {
+        int position = 0;
+        while (position + HEADER_BYTES + FIXED_BODY_BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length < FIXED_BODY_BYTES || position + HEADER_BYTES + length > capacity
+                    || buffer.getInt(position + HEADER_BYTES) != crc(position + HEADER_BYTES + 4, length - 4)) {
+                break;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + HEADER_BYTES + 4);
+            long millis = view.getLong();
+            view.get();
+            index(position, millis, fromNone(view.getLong()), fromNone(view.getLong()), fromNone(view.getLong()));
+            position += HEADER_BYTES + length;
+        }
+        size = position;
+        // Clear whatever a torn write left behind so the next append starts from a clean terminator
+        if (position + HEADER_BYTES <= capacity) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    // False when the sidecar is missing, torn or its last record is not the segment's last; the caller then scans
+    private boolean loadIndex() throws IOException {
+        Path index = indexPath(path);
+        if (!Files.exists(index)) {
+            return false;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(index));
+        if (in.remaining() < 4 + 4 + 4 + 8 + 4 + 4 || in.getInt() != INDEX_MAGIC) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), 0, in.limit() - 4);
+        if (in.getInt(in.limit() - 4) != (int) crc.getValue()) {
+            return false;
+        }
+        int end = in.getInt();
+        int last = in.getInt();
+        long newest = in.getLong();
+        int blocks = in.getInt();
+        if (!(last < 0 ? end == 0 : isLastRecord(last, end))
+                || (end + HEADER_BYTES <= capacity && buffer.getInt(end) != 0)
+                || in.remaining() != blocks * 4 + blocks * FILTER_LONGS * 8 + 4) {
+            return false;
+        }
+        int[] starts = new int[Math.max(blocks, 16)];
+        long[][] filters = new long[starts.length][];
+        for (int b = 0; b < blocks; b++) {
+            starts[b] = in.getInt();
+        }
+        for (int b = 0; b < blocks; b++) {
+            filters[b] = new long[FILTER_LONGS];
+            in.asLongBuffer().get(filters[b]);
+            in.position(in.position() + FILTER_LONGS * 8);
+        }
+        blockStarts = starts;
+        blockFilters = filters;
+        blockCount = blocks;
+        lastMillis = newest;
+        lastPosition = last;
+        size = end;
+        return true;
+    }
+
+    // A complete record at position that ends exactly at end
+    private boolean isLastRecord(int position, int end) {
+        if (position < 0 || position + HEADER_BYTES + FIXED_BODY_BYTES > end || end > capacity) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        return length >= FIXED_BODY_BYTES && position + HEADER_BYTES + length == end
+                && buffer.getInt(position + HEADER_BYTES) == crc(position + HEADER_BYTES + 4, length - 4);
+    }
+
+    private void index(int position, long millis, Long documentId, Long actorId, Long subjectId) {
+        if (blockCount == 0 || recordsInBlock == BLOCK_RECORDS) {
+            startBlock(position);
+        }
+        long[] filter = blockFilters[blockCount - 1];
+        if (documentId != null) {
+            add(filter, documentKey(documentId));
+        }
+        if (actorId != null) {
+            add(filter, userKey(actorId));
+        }
+        if (subjectId != null) {
+            add(filter, userKey(subjectId));
+        }
+        recordsInBlock++;
+        lastPosition = position;
+        lastMillis = millis;
+    }
+
+    private void startBlock(int position) {
+        int blocks = blockCount;
+        if (blocks == blockStarts.length) {
+            blockStarts = Arrays.copyOf(blockStarts, blocks * 2);
+            blockFilters = Arrays.copyOf(blockFilters, blocks * 2);
+        }
+        blockStarts[blocks] = position;
+        blockFilters[blocks] = new long[FILTER_LONGS];
+        blockCount = blocks + 1;
+        recordsInBlock = 0;
+    }
+
+    private static void add(long[] filter, long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < FILTER_HASHES; i++) {
+            int bit = (h1 + i * h2) & (FILTER_LONGS * 64 - 1);
+            filter[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] filter, long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < FILTER_HASHES; i++) {
+            int bit = (h1 + i * h2) & (FILTER_LONGS * 64 - 1);
+            if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Documents and users share one filter, so their ids go in as different keys
+    private static long documentKey(long documentId) {
+        return documentId << 1;
+    }
+
+    private static long userKey(long userId) {
+        return (userId << 1) | 1;
+    }
+
+    // MurmurHash3 finalizer: spreads sequential ids over the whole filter
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private int crc(int from, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(from).limit(from + length);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    private static long orNone(Long value) {
+        return value != null ? value : NONE;
+    }
+
+    private static Long fromNone(long value) {
+        return value == NONE ? null : value;
+    }
+}
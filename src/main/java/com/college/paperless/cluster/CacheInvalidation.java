@@ -0,0 +1,40 @@
+package com.college.paperless.cluster;
+
+/**
+ * One cache entry to drop on the other nodes: a region and the id the region is keyed by.
+ * Equal invalidations queued before the next flush are sent once.
+ */
+public record CacheInvalidation(Region region, long key) {
+
+    public enum Region {
+        // Hibernate user entity, natural id and query caches
+        USER('U'),
+        // InboxVersionService, keyed by user id
+        INBOX('I'),
+        // DocumentSnapshotCache, keyed by document id
+        DOCUMENT('D');
+
+        private final char code;
+
+        Region(char code) {
+            this.code = code;
+        }
+
+        static Region ofCode(char code) {
+            for (Region region : values()) {
+                if (region.code == code) {
+                    return region;
+                }
+            }
+            throw new IllegalArgumentException("Unknown invalidation region: " + code);
+        }
+    }
+
+    String encode() {
+        return region.code + Long.toString(key);
+    }
+
+    static CacheInvalidation decode(String value) {
+        return new CacheInvalidation(Region.ofCode(value.charAt(0)), Long.parseLong(value.substring(1)));
+    }
+}
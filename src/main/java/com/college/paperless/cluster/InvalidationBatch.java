@@ -0,0 +1,42 @@
+package com.college.paperless.cluster;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Invalidations flushed together by one node. sentAt is the sender's wall clock, used for the lag metric.
+ */
+public record InvalidationBatch(String nodeId, long sentAt, List<CacheInvalidation> invalidations) {
+
+    // Keeps an encoded payload within the cache_invalidations column: at most 21 characters per key
+    public static final int MAX_SIZE = 500;
+    public static final int MAX_PAYLOAD_LENGTH = MAX_SIZE * 21;
+
+    public String encodePayload() {
+        return invalidations.stream().map(CacheInvalidation::encode).collect(Collectors.joining(","));
+    }
+
+    public static List<CacheInvalidation> decodePayload(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(payload.split(",")).map(CacheInvalidation::decode).toList();
+    }
+
+    // Single-message form for transports without columns: node|sentAt|payload
+    public String encode() {
+        return nodeId + "|" + sentAt + "|" + encodePayload();
+    }
+
+    public static InvalidationBatch decode(String message) {
+        int first = message.indexOf('|');
+        int second = message.indexOf('|', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Malformed invalidation batch");
+        }
+        return new InvalidationBatch(message.substring(0, first),
+                Long.parseLong(message.substring(first + 1, second)),
+                decodePayload(message.substring(second + 1)));
+    }
+}
@@ -0,0 +1,221 @@
+package com.college.paperless.cluster;
+
+import com.college.paperless.config.BackgroundThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other nodes which cached users, inbox versions and document snapshots changed here.
+ *
+ * Caches publish the keys of committed changes; keys are queued in a set, so repeats before the next flush
+ * (a user touched by several transitions, a document approved then forwarded) are sent once. Every flush interval
+ * the queue is drained into batches of at most max-batch keys and handed to the {@link InvalidationTransport}.
+ * A batch that fails to send goes back to the queue. Received batches from other nodes are dispatched to the
+ * {@link InvalidationHandler} of each region; when the transport reports possible loss, every handler is cleared.
+ *
+ * paperless.invalidation.lag is the time from flush on the sending node to dispatch here. It compares two wall
+ * clocks, so node clocks are assumed to be kept in sync. Without a transport, publish is a no-op.
+ */
+@Slf4j
+@Component
+public class InvalidationBus implements SmartInitializingSingleton {
+
+    private final InvalidationTransport transport;
+    private final ObjectProvider<InvalidationHandler> handlerProvider;
+    private final Map<CacheInvalidation.Region, List<InvalidationHandler>> handlers =
+            new EnumMap<>(CacheInvalidation.Region.class);
+    private final String nodeId;
+    private final long flushIntervalMillis;
+    private final int maxBatch;
+    private final ScheduledExecutorService flusher;
+
+    private final Set<CacheInvalidation> pending = ConcurrentHashMap.newKeySet();
+
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter batchesSent;
+    private final Counter resets;
+    private final Timer lag;
+
+    public InvalidationBus(ObjectProvider<InvalidationTransport> transportProvider,
+                           ObjectProvider<InvalidationHandler> handlerProvider,
+                           BackgroundThreads backgroundThreads,
+                           MeterRegistry meterRegistry,
+                           @Value("${paperless.cluster.node-id:}") String nodeId,
+                           @Value("${paperless.cluster.invalidation.flush-interval:50ms}") Duration flushInterval,
+                           @Value("${paperless.cluster.invalidation.max-batch:500}") int maxBatch) {
+        this.transport = transportProvider.getIfAvailable();
+        this.handlerProvider = handlerProvider;
+        this.nodeId = nodeId.isEmpty()
+                ? System.getenv().getOrDefault("HOSTNAME", "node") + "-" + ProcessHandle.current().pid()
+                : nodeId;
+        if (this.nodeId.contains("|")) {
+            throw new IllegalStateException("paperless.cluster.node-id must not contain '|'");
+        }
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.maxBatch = Math.max(1, Math.min(maxBatch, InvalidationBatch.MAX_SIZE));
+        this.flusher = transport == null
+                ? null
+                : Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("invalidation-flush"));
+
+        String transportName = transport == null ? "none" : transport.getName();
+        this.published = Counter.builder("paperless.invalidation.published")
+                .description("Keys published by this node, before coalescing")
+                .tag("transport", transportName).register(meterRegistry);
+        this.coalesced = Counter.builder("paperless.invalidation.coalesced")
+                .description("Published keys already queued for the next flush")
+                .tag("transport", transportName).register(meterRegistry);
+        this.sent = Counter.builder("paperless.invalidation.sent")
+                .tag("transport", transportName).register(meterRegistry);
+        this.batchesSent = Counter.builder("paperless.invalidation.batches")
+                .tag("transport", transportName).register(meterRegistry);
+        this.received = Counter.builder("paperless.invalidation.received")
+                .description("Keys received from other nodes")
+                .tag("transport", transportName).register(meterRegistry);
+        this.resets = Counter.builder("paperless.invalidation.resets")
+                .description("Full cache clears after the transport reported possible message loss")
+                .tag("transport", transportName).register(meterRegistry);
+        this.lag = Timer.builder("paperless.invalidation.lag")
+                .description("From flush on the sending node to dispatch on this node")
+                .tag("transport", transportName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("paperless.invalidation.pending", pending, Set::size)
+                .tag("transport", transportName).register(meterRegistry);
+    }
+
+    // Handlers are resolved here rather than injected: they publish through this bus themselves
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (transport == null) {
+            return;
+        }
+        handlerProvider.orderedStream().forEach(handler ->
+                handlers.computeIfAbsent(handler.getRegion(), region -> new ArrayList<>()).add(handler));
+        transport.start(new InvalidationTransport.Receiver() {
+            @Override
+            public void onBatch(InvalidationBatch batch) {
+                receive(batch);
+            }
+
+            @Override
+            public void onMessagesLost() {
+                reset();
+            }
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Cache invalidation over {} as node {}", transport.getName(), nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        transport.stop();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Call after the change has committed, or another node may reload the old value before it is visible
+    public void publish(CacheInvalidation.Region region, Collection<Long> keys) {
+        if (transport == null) {
+            return;
+        }
+        for (Long key : keys) {
+            published.increment();
+            if (!pending.add(new CacheInvalidation(region, key))) {
+                coalesced.increment();
+            }
+        }
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<CacheInvalidation> drained = new ArrayList<>(pending.size());
+        for (Iterator<CacheInvalidation> it = pending.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        for (int from = 0; from < drained.size(); from += maxBatch) {
+            List<CacheInvalidation> batch = List.copyOf(drained.subList(from, Math.min(from + maxBatch, drained.size())));
+            try {
+                transport.send(new InvalidationBatch(nodeId, System.currentTimeMillis(), batch));
+            } catch (RuntimeException e) {
+                pending.addAll(drained.subList(from, drained.size()));
+                log.warn("Sending {} invalidations over {} failed, retrying: {}",
+                        drained.size() - from, transport.getName(), e.getMessage());
+                return;
+            }
+            batchesSent.increment();
+            sent.increment(batch.size());
+        }
+    }
+
+    private void receive(InvalidationBatch batch) {
+        if (nodeId.equals(batch.nodeId())) {
+            return;
+        }
+        Map<CacheInvalidation.Region, List<Long>> keys = new EnumMap<>(CacheInvalidation.Region.class);
+        for (CacheInvalidation invalidation : batch.invalidations()) {
+            keys.computeIfAbsent(invalidation.region(), region -> new ArrayList<>()).add(invalidation.key());
+        }
+        keys.forEach((region, ids) -> {
+            for (InvalidationHandler handler : handlers.getOrDefault(region, List.of())) {
+                try {
+                    handler.invalidate(ids);
+                } catch (RuntimeException e) {
+                    log.warn("Invalidating {} {} keys failed", ids.size(), region, e);
+                }
+            }
+        });
+        received.increment(batch.invalidations().size());
+        lag.record(Math.max(0, System.currentTimeMillis() - batch.sentAt()), TimeUnit.MILLISECONDS);
+    }
+
+    private void reset() {
+        resets.increment();
+        log.warn("Possible lost invalidations over {}, clearing node-local caches", transport.getName());
+        handlers.values().forEach(list -> list.forEach(handler -> {
+            try {
+                handler.invalidateAll();
+            } catch (RuntimeException e) {
+                log.warn("Clearing {} failed", handler.getRegion(), e);
+            }
+        }));
+    }
+}
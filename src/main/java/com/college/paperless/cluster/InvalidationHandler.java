@@ -0,0 +1,16 @@
+package com.college.paperless.cluster;
+
+import java.util.Collection;
+
+/**
+ * A node-local cache that drops entries when another node invalidates them through the {@link InvalidationBus}.
+ */
+public interface InvalidationHandler {
+
+    CacheInvalidation.Region getRegion();
+
+    void invalidate(Collection<Long> keys);
+
+    // Messages may have been lost, so nothing cached can be trusted
+    void invalidateAll();
+}
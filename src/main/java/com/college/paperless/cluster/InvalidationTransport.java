@@ -0,0 +1,26 @@
+package com.college.paperless.cluster;
+
+/**
+ * Carries invalidation batches between nodes. Selected by paperless.cluster.invalidation.transport;
+ * with none configured the {@link InvalidationBus} keeps everything local.
+ *
+ * A transport delivers every batch to every node, the sender included, and calls
+ * {@link Receiver#onMessagesLost()} whenever it cannot rule out having missed some.
+ */
+public interface InvalidationTransport {
+
+    interface Receiver {
+
+        void onBatch(InvalidationBatch batch);
+
+        void onMessagesLost();
+    }
+
+    String getName();
+
+    void start(Receiver receiver);
+
+    void send(InvalidationBatch batch);
+
+    void stop();
+}
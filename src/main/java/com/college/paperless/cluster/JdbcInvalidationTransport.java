@@ -0,0 +1,134 @@
+package com.college.paperless.cluster;
+
+import com.college.paperless.config.BackgroundThreads;
+import com.college.paperless.entity.CacheInvalidationRecord;
+import com.college.paperless.repository.CacheInvalidationRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidation transport over the cache_invalidations table, for deployments without a message broker.
+ *
+ * Each flushed batch is one row. Every node polls for rows above the highest id it has read. Ids are assigned at
+ * insert but become visible at commit, so a lower id can appear after a higher one: ids skipped over are kept as
+ * gaps and the poll restarts below the oldest gap until the row shows up or the gap times out (a rolled back
+ * insert never fills it). Rows older than the retention period are purged; a node that could not poll for that
+ * long may have missed rows and reports a loss.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "paperless.cluster.invalidation.transport", havingValue = "jdbc")
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final int POLL_LIMIT = 1000;
+    private static final int MAX_TRACKED_GAPS = 1000;
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CacheInvalidationRecordRepository repository;
+    private final ScheduledExecutorService poller;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+
+    // Only touched by the poller thread after start
+    private Receiver receiver;
+    private long floor;
+    private long highest;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long lastPollMillis;
+    private long lastPurgeMillis;
+
+    public JdbcInvalidationTransport(CacheInvalidationRecordRepository repository,
+                                     BackgroundThreads backgroundThreads,
+                                     @Value("${paperless.cluster.invalidation.jdbc.poll-interval:250ms}") Duration pollInterval,
+                                     @Value("${paperless.cluster.invalidation.jdbc.retention:10m}") Duration retention) {
+        this.repository = repository;
+        this.poller = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("invalidation-poll"));
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.retentionMillis = retention.toMillis();
+    }
+
+    @Override
+    public String getName() {
+        return "jdbc";
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        this.floor = repository.findMaxId();
+        this.highest = floor;
+        this.lastPollMillis = System.currentTimeMillis();
+        this.lastPurgeMillis = lastPollMillis;
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void send(InvalidationBatch batch) {
+        repository.save(new CacheInvalidationRecord(null, batch.nodeId(), batch.sentAt(), batch.encodePayload()));
+    }
+
+    @Override
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            List<CacheInvalidationRecord> rows = repository.findAfter(floor, PageRequest.of(0, POLL_LIMIT));
+            if (now - lastPollMillis > retentionMillis) {
+                receiver.onMessagesLost();
+            }
+            lastPollMillis = now;
+            for (CacheInvalidationRecord row : rows) {
+                if (!track(row.getId())) {
+                    continue;
+                }
+                receiver.onBatch(new InvalidationBatch(row.getNodeId(), row.getSentAt(),
+                        InvalidationBatch.decodePayload(row.getPayload())));
+            }
+            expireGaps();
+            floor = gaps.isEmpty() ? highest : gaps.firstKey() - 1;
+            if (now - lastPurgeMillis > PURGE_INTERVAL_MILLIS) {
+                lastPurgeMillis = now;
+                repository.deleteSentBefore(now - retentionMillis);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    // True when the row has not been delivered yet
+    private boolean track(long id) {
+        if (id <= highest) {
+            return gaps.remove(id) != null;
+        }
+        long noticed = System.nanoTime();
+        for (long missing = highest + 1; missing < id && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+            gaps.put(missing, noticed);
+        }
+        highest = id;
+        return true;
+    }
+
+    private void expireGaps() {
+        long now = System.nanoTime();
+        for (Iterator<Long> it = gaps.values().iterator(); it.hasNext(); ) {
+            if (now - it.next() > GAP_TIMEOUT_NANOS) {
+                it.remove();
+            }
+        }
+    }
+}
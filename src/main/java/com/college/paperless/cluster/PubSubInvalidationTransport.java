@@ -0,0 +1,102 @@
+package com.college.paperless.cluster;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Invalidation transport over a Redis pub/sub channel: one message per batch, pushed to every subscribed node.
+ *
+ * Pub/sub keeps nothing for a subscriber that is not connected, so when the subscription connection comes back
+ * after a drop the receiver is told messages were lost. Lettuce reconnects and resubscribes on its own; publishes
+ * issued while disconnected fail after the command timeout and are retried by the bus.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "paperless.cluster.invalidation.transport", havingValue = "pubsub")
+public class PubSubInvalidationTransport implements InvalidationTransport {
+
+    private final RedisClient client;
+    private final String channel;
+
+    private StatefulRedisPubSubConnection<String, String> subscriber;
+    private StatefulRedisConnection<String, String> publisher;
+    private volatile boolean subscriberDropped;
+
+    public PubSubInvalidationTransport(
+            @Value("${paperless.cluster.invalidation.pubsub.uri:redis://localhost:6379}") String uri,
+            @Value("${paperless.cluster.invalidation.pubsub.channel:paperless:invalidations}") String channel,
+            @Value("${paperless.cluster.invalidation.pubsub.timeout:2s}") Duration timeout) {
+        this.client = RedisClient.create(uri);
+        this.client.setDefaultTimeout(timeout);
+        this.client.setOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        this.channel = channel;
+    }
+
+    @Override
+    public String getName() {
+        return "pubsub";
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        subscriber = client.connectPubSub();
+        subscriber.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                try {
+                    receiver.onBatch(InvalidationBatch.decode(message));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring malformed invalidation message on {}", channel);
+                }
+            }
+        });
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                if (connection == subscriber) {
+                    subscriberDropped = true;
+                }
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                if (connection == subscriber && subscriberDropped) {
+                    subscriberDropped = false;
+                    receiver.onMessagesLost();
+                }
+            }
+        });
+        subscriber.sync().subscribe(channel);
+        publisher = client.connect();
+    }
+
+    @Override
+    public void send(InvalidationBatch batch) {
+        publisher.sync().publish(channel, batch.encode());
+    }
+
+    @Override
+    public void stop() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        client.shutdown();
+    }
+}
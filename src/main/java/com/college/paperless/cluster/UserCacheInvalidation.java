@@ -0,0 +1,135 @@
+package com.college.paperless.cluster;
+
+import com.college.paperless.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the users second-level cache regions coherent across nodes. Every committed insert, update or delete of a
+ * User through Hibernate (profile, role and department changes, sign-ups) is published; on the other nodes the
+ * entity is evicted by id, together with its email lookup when the entity was cached there (the email never
+ * changes, so the lookup only goes stale when the user is deleted). Cached queries over users are invalidated the
+ * way Hibernate does it for local writes: the users table spaces get a new update timestamp, and results cached
+ * before it are no longer used. Entries of other users and queries over other tables stay cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidation implements InvalidationHandler, PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final InvalidationBus invalidationBus;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public CacheInvalidation.Region getRegion() {
+        return CacheInvalidation.Region.USER;
+    }
+
+    @Override
+    public void invalidate(Collection<Long> keys) {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        EntityDataAccess entities = persister.getCacheAccessStrategy();
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+        try (SessionImplementor session = sessionFactory.openTemporarySession()) {
+            for (Long id : keys) {
+                Object entityKey = entities.generateCacheKey(id, persister, sessionFactory, null);
+                if (entities.get(session, entityKey) instanceof CacheEntry entry) {
+                    Object email = persister.getNaturalIdMapping().extractNaturalIdFromEntityState(entry.getDisassembledState());
+                    naturalIds.evict(naturalIds.generateCacheKey(email, persister, session));
+                }
+                entities.evict(entityKey);
+            }
+            invalidateQueries(persister, session);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(User.class);
+        cache.evictNaturalIdData(User.class);
+        try (SessionImplementor session = sessionFactory.openTemporarySession()) {
+            invalidateQueries(sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class), session);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == User.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    // Nothing was committed, so nothing to tell the other nodes
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(Object entity, Object id) {
+        if (entity instanceof User && id instanceof Long userId) {
+            invalidationBus.publish(CacheInvalidation.Region.USER, List.of(userId));
+        }
+    }
+
+    private static void invalidateQueries(EntityPersister persister, SessionImplementor session) {
+        String[] spaces = Arrays.stream(persister.getQuerySpaces()).map(String::valueOf).toArray(String[]::new);
+        session.getFactory().getCache().getTimestampsCache().invalidate(spaces, session);
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
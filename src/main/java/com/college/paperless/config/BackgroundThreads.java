@@ -0,0 +1,44 @@
+package com.college.paperless.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own background work (event bus consumers, SSE senders).
+ * Follows spring.threads.virtual.enabled like the servlet container does, so the whole app switches together.
+ * The build targets Java 17; virtual threads are only used when the runtime is 21 or newer.
+ */
+@Slf4j
+@Component
+public class BackgroundThreads {
+
+    private final boolean virtual;
+
+    public BackgroundThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+        this.virtual = virtualRequested && Runtime.version().feature() >= 21;
+        if (virtualRequested && !virtual) {
+            log.warn("Virtual threads requested but running on Java {}; using platform threads", Runtime.version());
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
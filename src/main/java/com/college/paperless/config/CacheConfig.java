@@ -0,0 +1,66 @@
+package com.college.paperless.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache regions, held in a Caffeine-backed JCache manager that Hibernate is handed directly.
+ *
+ * Users are read-write cached by id (region users) and by email (users-by-email, the natural id resolution used by
+ * every authenticated request). Role and department lookups go through the query cache; any write to users through
+ * Hibernate, such as a profile, role or signature update, invalidates those results via the update timestamps region.
+ * Writes that bypass Hibernate (JDBC migrations) only run at startup, before anything is cached.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "users-by-email";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${paperless.cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${paperless.cache.users.ttl:30m}") Duration usersTtl,
+            @Value("${paperless.cache.queries.max-size:1000}") long queriesMaxSize,
+            @Value("${paperless.cache.queries.ttl:5m}") Duration queriesTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        create(cacheManager, USERS, usersMaxSize, usersTtl);
+        create(cacheManager, USERS_BY_EMAIL, usersMaxSize, usersTtl);
+        create(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queriesMaxSize, queriesTtl);
+        // Must outlive every cached query result, or a stale result could be taken for current
+        create(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, Duration.ZERO);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // A max size or ttl of 0 means unbounded
+    private static void create(CacheManager cacheManager, String name, long maxSize, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            cacheManager.destroyCache(name);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (!ttl.isZero()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
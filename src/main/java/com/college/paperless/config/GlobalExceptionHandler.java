@@ -1,13 +1,16 @@
 package com.college.paperless.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -17,12 +20,21 @@ public class GlobalExceptionHandler {
         error.put("message", ex.getMessage());
         error.put("error", "Runtime Exception");
 
-        // Log the full stack trace for debugging
-        ex.printStackTrace();
+        log.warn("Request failed: {}", ex.getMessage(), ex);
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    // Another approver (or a repeated click) acted on the document first
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "This document was changed by another action. Reload it and try again.");
+        error.put("error", "Conflict");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
         Map<String, String> error = new HashMap<>();
@@ -38,8 +50,7 @@ public class GlobalExceptionHandler {
         error.put("message", "An unexpected error occurred: " + ex.getMessage());
         error.put("error", "Internal Server Error");
 
-        // Log the full stack trace for debugging
-        ex.printStackTrace();
+        log.error("Unexpected error", ex);
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
@@ -0,0 +1,102 @@
+package com.college.paperless.config;
+
+import com.college.paperless.event.DocumentTransitionEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, active only when paperless.datasource.replica.url is set.
+ *
+ * The routing data source is wrapped in a lazy proxy so the route is chosen at the first statement, after the
+ * transaction has been marked read-only. Hibernate releases connections after each transaction instead of holding
+ * one per open-in-view session; otherwise a request's first connection would serve all of its transactions.
+ */
+@Configuration
+@ConditionalOnExpression("!'${paperless.datasource.replica.url:}'.isEmpty()")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("paperless.datasource.replica.hikari")
+    public HikariDataSource replicaPool(DataSourceProperties properties,
+                                        @Value("${paperless.datasource.replica.url}") String url,
+                                        @Value("${paperless.datasource.replica.username:}") String username,
+                                        @Value("${paperless.datasource.replica.password:}") String password) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(url);
+        if (!username.isEmpty()) {
+            pool.setUsername(username);
+            pool.setPassword(password);
+        }
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryPool,
+            HikariDataSource replicaPool,
+            @Value("${paperless.datasource.replica.sticky-seconds:5}") long stickySeconds,
+            @Value("${paperless.datasource.replica.retry-after-seconds:30}") long retryAfterSeconds) {
+        return new ReplicaRoutingDataSource(primaryPool, replicaPool, stickySeconds, retryAfterSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReadYourWrites(replicaRoutingDataSource);
+    }
+
+    public static class ReadYourWrites {
+        private final ReplicaRoutingDataSource routing;
+
+        ReadYourWrites(ReplicaRoutingDataSource routing) {
+            this.routing = routing;
+        }
+
+        // Everyone on the document is about to be told about it (SSE), so all of them reload from the primary
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+        public void onTransition(DocumentTransitionEvent event) {
+            routing.markWritten(event.getParticipantIds());
+        }
+
+        @Scheduled(fixedDelay = 60_000)
+        public void evictExpired() {
+            routing.evictExpired();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.college.paperless.config;
+
+import com.college.paperless.security.JwtAuthenticationFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * Two exceptions keep reads correct: a user whose documents changed in the last few seconds reads from the primary
+ * (the replica may not have the write yet), and a replica that refuses connections is taken out of rotation for a
+ * cooldown period, during which reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long stickyNanos;
+    private final long cooldownNanos;
+
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private volatile long replicaDownUntil;
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong stickyReads = new AtomicLong();
+    private final AtomicLong failoverReads = new AtomicLong();
+    private final AtomicLong replicaFailures = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long stickySeconds, long cooldownSeconds) {
+        this.primary = primary;
+        this.replica = replica;
+        this.stickyNanos = TimeUnit.SECONDS.toNanos(stickySeconds);
+        this.cooldownNanos = TimeUnit.SECONDS.toNanos(cooldownSeconds);
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    // Called when a transition commits so the affected users read their own writes
+    public void markWritten(Iterable<Long> userIds) {
+        long until = System.nanoTime() + stickyNanos;
+        for (Long userId : userIds) {
+            stickyUntil.put(userId, until);
+        }
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now < 0);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        long now = System.nanoTime();
+        if (replicaDownUntil - now > 0) {
+            failoverReads.incrementAndGet();
+            return Route.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            Long until = stickyUntil.get(userId);
+            if (until != null && until - now > 0) {
+                stickyReads.incrementAndGet();
+                return Route.PRIMARY;
+            }
+        }
+        replicaReads.incrementAndGet();
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object route = determineCurrentLookupKey();
+        if (route == Route.PRIMARY) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaFailures.incrementAndGet();
+            replicaDownUntil = System.nanoTime() + cooldownNanos;
+            log.warn("Replica unavailable, reading from primary for the next {}s: {}",
+                    TimeUnit.NANOSECONDS.toSeconds(cooldownNanos), e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaReads", replicaReads.get());
+        stats.put("stickyReads", stickyReads.get());
+        stats.put("failoverReads", failoverReads.get());
+        stats.put("replicaFailures", replicaFailures.get());
+        stats.put("replicaAvailable", replicaDownUntil - System.nanoTime() <= 0);
+        stats.put("stickyUsers", stickyUntil.size());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource dataSource : new DataSource[] {replica, primary}) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object userId = attributes.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return userId instanceof Long id ? id : null;
+    }
+}
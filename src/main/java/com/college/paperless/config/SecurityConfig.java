@@ -1,6 +1,7 @@
 package com.college.paperless.config;
 
 import com.college.paperless.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -40,8 +41,13 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of an async request (SSE) re-dispatches after the original request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**", "/login/**", "/oauth2/**", "/error").permitAll()
-                        .requestMatchers("/api/admin/**").permitAll()
+                        // Diagnostics and controls (jobs, audit, JFR, pools, scheduler) expose internals or re-run side effects
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // Only mapped on the management port (management.server.port), which is not public
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/student/**").permitAll()
                         .requestMatchers("/api/mentor/**").permitAll()
                         .requestMatchers("/api/hod/**").permitAll()
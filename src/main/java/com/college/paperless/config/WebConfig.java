@@ -0,0 +1,22 @@
+package com.college.paperless.config;
+
+import com.college.paperless.admission.AdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // The SSE stream is long-lived and costs no thread once open; it is not counted against the bulkheads
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/events", "/api/admin/**");
+    }
+}
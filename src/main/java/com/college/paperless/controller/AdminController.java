@@ -1,10 +1,19 @@
 package com.college.paperless.controller;
 
+import com.college.paperless.admission.AdmissionControl;
+import com.college.paperless.config.ReplicaRoutingDataSource;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.event.DocumentEventBus;
+import com.college.paperless.jfr.FlightRecordings;
+import com.college.paperless.job.JobQueue;
+import com.college.paperless.metrics.QueryBudget;
+import com.college.paperless.metrics.SlowRequestLog;
 import com.college.paperless.repository.DocumentRepository;
 import com.college.paperless.repository.UserRepository;
+import com.college.paperless.scheduler.MaintenanceScheduler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,8 +30,16 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentEventBus documentEventBus;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final AdmissionControl admissionControl;
+    private final SlowRequestLog slowRequestLog;
+    private final FlightRecordings flightRecordings;
+    private final JobQueue jobQueue;
+    private final MaintenanceScheduler maintenanceScheduler;
 
     @GetMapping("/statistics")
+    @QueryBudget(8)
     public ResponseEntity<Map<String, Object>> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
@@ -32,15 +49,15 @@ public class AdminController {
             stats.put("totalUsers", totalUsers);
 
             // Count students
-            long students = userRepository.countByRolesContaining(User.UserRole.STUDENT);
+            long students = userRepository.countByRole(User.UserRole.STUDENT);
             stats.put("students", students);
 
             // Count mentors
-            long mentors = userRepository.countByRolesContaining(User.UserRole.MENTOR);
+            long mentors = userRepository.countByRole(User.UserRole.MENTOR);
             stats.put("mentors", mentors);
 
             // Count HODs
-            long hods = userRepository.countByRolesContaining(User.UserRole.HOD);
+            long hods = userRepository.countByRole(User.UserRole.HOD);
             stats.put("hods", hods);
 
             // Count total documents
@@ -67,9 +84,93 @@ public class AdminController {
     }
 
     @GetMapping("/users")
+    @QueryBudget(3)
     public ResponseEntity<List<User>> getAllUsers() {
         List<User> users = userRepository.findAll();
         return ResponseEntity.ok(users);
     }
-}
 
+    @GetMapping("/event-bus")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getEventBusStatistics() {
+        return ResponseEntity.ok(documentEventBus.getStatistics());
+    }
+
+    @GetMapping("/datasource")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getDataSourceRouting() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return ResponseEntity.ok(Map.of("replicaConfigured", false));
+        }
+        Map<String, Object> stats = new HashMap<>(routing.getStatistics());
+        stats.put("replicaConfigured", true);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/admission")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getAdmissionStatistics() {
+        return ResponseEntity.ok(admissionControl.getStatistics());
+    }
+
+    @GetMapping("/slow-requests")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getSlowRequests() {
+        return ResponseEntity.ok(slowRequestLog.getStatistics());
+    }
+
+    @GetMapping("/jobs")
+    @QueryBudget(4)
+    public ResponseEntity<Map<String, Object>> getJobs(@RequestParam(value = "deadLimit", defaultValue = "50") int deadLimit) {
+        Map<String, Object> jobs = new HashMap<>();
+        jobs.put("counts", jobQueue.countByStatus());
+        jobs.put("dead", jobQueue.findDead(deadLimit));
+        return ResponseEntity.ok(jobs);
+    }
+
+    // Gives a dead-lettered job a fresh set of attempts
+    @PostMapping("/jobs/{jobId}/retry")
+    @QueryBudget(3)
+    public ResponseEntity<Map<String, String>> retryDeadJob(@PathVariable Long jobId) {
+        if (!jobQueue.retryDead(jobId)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Job " + jobId + " is not dead-lettered"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Job " + jobId + " requeued"));
+    }
+
+    // Leader and tasks as seen from this node, plus the cluster-wide run history
+    @GetMapping("/maintenance")
+    @QueryBudget(4)
+    public ResponseEntity<Map<String, Object>> getMaintenance(@RequestParam(value = "limit", defaultValue = "50") int limit) {
+        Map<String, Object> maintenance = new HashMap<>(maintenanceScheduler.getStatus());
+        maintenance.put("runs", maintenanceScheduler.findRecentRuns(limit));
+        return ResponseEntity.ok(maintenance);
+    }
+
+    @GetMapping("/jfr")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getFlightRecording() {
+        return ResponseEntity.ok(flightRecordings.getStatus());
+    }
+
+    // settings: a JDK preset, "default" (production) or "profile" (more sampling)
+    @PostMapping("/jfr/start")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> startFlightRecording(
+            @RequestParam(value = "settings", required = false) String settings) {
+        return ResponseEntity.ok(flightRecordings.start(settings));
+    }
+
+    @PostMapping("/jfr/dump")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> dumpFlightRecording() {
+        return ResponseEntity.ok(flightRecordings.dump());
+    }
+
+    @PostMapping("/jfr/stop")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> stopFlightRecording() {
+        return ResponseEntity.ok(flightRecordings.stop());
+    }
+}
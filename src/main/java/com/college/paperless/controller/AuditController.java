@@ -0,0 +1,30 @@
+package com.college.paperless.controller;
+
+import com.college.paperless.audit.AuditLog;
+import com.college.paperless.audit.AuditRecord;
+import com.college.paperless.metrics.QueryBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    @GetMapping("/documents/{documentId}")
+    @QueryBudget(4)
+    public ResponseEntity<List<AuditRecord>> getDocumentTrail(@PathVariable Long documentId) {
+        return ResponseEntity.ok(auditLog.findByDocument(documentId));
+    }
+
+    @GetMapping("/users/{userId}")
+    @QueryBudget(4)
+    public ResponseEntity<List<AuditRecord>> getUserTrail(@PathVariable Long userId) {
+        return ResponseEntity.ok(auditLog.findByUser(userId));
+    }
+}
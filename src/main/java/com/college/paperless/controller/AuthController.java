@@ -4,6 +4,7 @@ import com.college.paperless.dto.LoginResponse;
 import com.college.paperless.dto.UpdateProfileRequest;
 import com.college.paperless.dto.UserDTO;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
 import com.college.paperless.security.CustomUserDetailsService;
 import com.college.paperless.security.JwtTokenUtil;
 import com.college.paperless.service.FileStorageService;
@@ -30,6 +31,7 @@ public class AuthController {
     private final CustomUserDetailsService userDetailsService;
 
     @PostMapping("/google-login")
+    @QueryBudget(6)
     public ResponseEntity<LoginResponse> googleLogin(@RequestBody Map<String, String> request) {
         String email = request.get("email");
         String name = request.get("name");
@@ -45,12 +47,14 @@ public class AuthController {
     }
 
     @GetMapping("/me")
+    @QueryBudget(4)
     public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         return ResponseEntity.ok(UserDTO.fromEntity(user));
     }
 
     @PutMapping("/profile")
+    @QueryBudget(6)
     public ResponseEntity<UserDTO> updateProfile(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestBody UpdateProfileRequest request) {
@@ -68,6 +72,7 @@ public class AuthController {
     }
 
     @PostMapping("/set-role")
+    @QueryBudget(6)
     public ResponseEntity<?> setUserRole(
             @RequestBody Map<String, String> request) {
         try {
@@ -102,9 +107,7 @@ public class AuthController {
                     .orElseThrow(() -> new RuntimeException("User not found with email: " + email + ". The user must login at least once before a role can be assigned."));
 
             // Set role
-            user.setRole(User.UserRole.valueOf(role.toUpperCase()));
-            userService.updateProfile(user, user.getName(), user.getVtuNumber(),
-                    user.getContactNumber(), user.getYearOfStudy(), user.getDepartment(), user.getTtsId());
+            userService.assignRole(user, User.UserRole.valueOf(role.toUpperCase()), null);
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Role updated successfully to " + role);
@@ -117,6 +120,7 @@ public class AuthController {
     }
 
     @PostMapping("/admin-login")
+    @QueryBudget(6)
     public ResponseEntity<LoginResponse> adminLogin(@RequestBody Map<String, String> request) {
         String username = request.get("username");
         String password = request.get("password");
@@ -139,8 +143,7 @@ public class AuthController {
 
             // Ensure role is ADMIN
             if (adminUser.getRole() != User.UserRole.ADMIN) {
-                adminUser.setRole(User.UserRole.ADMIN);
-                userService.updateProfile(adminUser, adminUser.getName(), adminUser.getVtuNumber(), adminUser.getContactNumber(), adminUser.getYearOfStudy(), adminUser.getDepartment(), adminUser.getTtsId());
+                adminUser = userService.assignRole(adminUser, User.UserRole.ADMIN, null);
             }
 
             String token = jwtTokenUtil.generateToken(adminUser.getEmail(), adminUser.getId(), "ADMIN");
@@ -1,12 +1,16 @@
 package com.college.paperless.controller;
 
+import com.college.paperless.audit.AuditLog;
 import com.college.paperless.dto.DocumentActionRequest;
 import com.college.paperless.dto.DocumentDTO;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
 import com.college.paperless.security.CustomUserDetailsService;
+import com.college.paperless.security.JwtAuthenticationFilter;
 import com.college.paperless.service.DocumentService;
 import com.college.paperless.service.FileStorageService;
+import com.college.paperless.service.InboxVersionService;
 import com.college.paperless.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
@@ -19,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -35,12 +40,20 @@ public class CoEController {
     private final UserService userService;
     private final FileStorageService fileStorageService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
+    private final InboxVersionService inboxVersionService;
 
     @GetMapping("/pending-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getPendingDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User coe = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Page<DocumentDTO> documents = documentService.getDocumentsByCoeAndStatus(coe, Document.DocumentStatus.FORWARDED_TO_COE, PageRequest.of(page, size))
                 .map(DocumentDTO::fromEntity);
@@ -49,10 +62,16 @@ public class CoEController {
     }
 
     @GetMapping("/all-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getAllDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User coe = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Page<DocumentDTO> documents = documentService.getDocumentsByCoe(coe, PageRequest.of(page, size))
                 .map(DocumentDTO::fromEntity);
@@ -61,6 +80,7 @@ public class CoEController {
     }
 
     @PostMapping("/approve")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> approveDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -72,6 +92,7 @@ public class CoEController {
     }
 
     @PostMapping("/reject")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> rejectDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -87,6 +108,7 @@ public class CoEController {
     }
 
     @PostMapping("/forward-to-exam-cell")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToExamCell(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -102,23 +124,24 @@ public class CoEController {
     }
 
     @GetMapping("/document/{documentId}/download")
+    @QueryBudget(6)
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
             @AuthenticationPrincipal UserDetails userDetails) throws IOException {
 
         User coe = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
-        Document document = documentService.getDocumentById(documentId)
+        DocumentDTO document = documentService.getDocumentSnapshot(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        if (document.getCoe() == null || !document.getCoe().getId().equals(coe.getId())) {
+        if (document.getCoeId() == null || !document.getCoeId().equals(coe.getId())) {
             throw new RuntimeException("Access denied");
         }
 
-        if (document.getData() == null) {
-             throw new RuntimeException("Document content not found");
-        }
+        byte[] data = documentService.getDocumentData(document);
+
+        auditLog.recordDownload(document.getId(), coe.getId());
 
-        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(document.getData());
+        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(data);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(document.getFileType()))
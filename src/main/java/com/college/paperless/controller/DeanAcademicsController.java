@@ -1,12 +1,16 @@
 package com.college.paperless.controller;
 
+import com.college.paperless.audit.AuditLog;
 import com.college.paperless.dto.DocumentActionRequest;
 import com.college.paperless.dto.DocumentDTO;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
 import com.college.paperless.security.CustomUserDetailsService;
+import com.college.paperless.security.JwtAuthenticationFilter;
 import com.college.paperless.service.DocumentService;
 import com.college.paperless.service.FileStorageService;
+import com.college.paperless.service.InboxVersionService;
 import com.college.paperless.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
@@ -20,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -36,12 +41,20 @@ public class DeanAcademicsController {
     private final UserService userService;
     private final FileStorageService fileStorageService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
+    private final InboxVersionService inboxVersionService;
 
     @GetMapping("/pending-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getPendingDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User deanAcademics = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Pageable pageable = PageRequest.of(page, size);
         Page<DocumentDTO> documents = documentService.getDocumentsByDeanAcademicsAndStatus(deanAcademics, Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS, pageable)
@@ -51,10 +64,16 @@ public class DeanAcademicsController {
     }
 
     @GetMapping("/all-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getAllDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User deanAcademics = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Pageable pageable = PageRequest.of(page, size);
         Page<DocumentDTO> documents = documentService.getDocumentsByDeanAcademics(deanAcademics, pageable)
@@ -64,6 +83,7 @@ public class DeanAcademicsController {
     }
 
     @PostMapping("/approve")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> approveDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -75,6 +95,7 @@ public class DeanAcademicsController {
     }
 
     @PostMapping("/reject")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> rejectDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -90,6 +111,7 @@ public class DeanAcademicsController {
     }
 
     @PostMapping("/forward-to-registrar")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToRegistrar(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -106,6 +128,7 @@ public class DeanAcademicsController {
     }
 
     @PostMapping("/forward-to-exam-cell")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToExamCell(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -121,23 +144,24 @@ public class DeanAcademicsController {
     }
 
     @GetMapping("/document/{documentId}/download")
+    @QueryBudget(6)
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
             @AuthenticationPrincipal UserDetails userDetails) throws IOException {
 
         User deanAcademics = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
-        Document document = documentService.getDocumentById(documentId)
+        DocumentDTO document = documentService.getDocumentSnapshot(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        if (document.getDeanAcademics() == null || !document.getDeanAcademics().getId().equals(deanAcademics.getId())) {
+        if (document.getDeanAcademicsId() == null || !document.getDeanAcademicsId().equals(deanAcademics.getId())) {
             throw new RuntimeException("Access denied");
         }
 
-        if (document.getData() == null) {
-             throw new RuntimeException("Document content not found");
-        }
+        byte[] data = documentService.getDocumentData(document);
+
+        auditLog.recordDownload(document.getId(), deanAcademics.getId());
 
-        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(document.getData());
+        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(data);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(document.getFileType()))
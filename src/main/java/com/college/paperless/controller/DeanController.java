@@ -1,12 +1,16 @@
 package com.college.paperless.controller;
 
+import com.college.paperless.audit.AuditLog;
 import com.college.paperless.dto.DocumentActionRequest;
 import com.college.paperless.dto.DocumentDTO;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
 import com.college.paperless.security.CustomUserDetailsService;
+import com.college.paperless.security.JwtAuthenticationFilter;
 import com.college.paperless.service.DocumentService;
 import com.college.paperless.service.FileStorageService;
+import com.college.paperless.service.InboxVersionService;
 import com.college.paperless.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
@@ -20,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -36,12 +41,20 @@ public class DeanController {
     private final UserService userService;
     private final FileStorageService fileStorageService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
+    private final InboxVersionService inboxVersionService;
 
     @GetMapping("/pending-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getPendingDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User dean = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Pageable pageable = PageRequest.of(page, size);
         Page<DocumentDTO> documents = documentService.getDocumentsByDeanAndStatus(dean, Document.DocumentStatus.FORWARDED_TO_DEAN, pageable)
@@ -51,10 +64,16 @@ public class DeanController {
     }
 
     @GetMapping("/all-documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getAllDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User dean = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Pageable pageable = PageRequest.of(page, size);
         Page<DocumentDTO> documents = documentService.getDocumentsByDean(dean, pageable)
@@ -64,6 +83,7 @@ public class DeanController {
     }
 
     @PostMapping("/approve")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> approveDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -75,6 +95,7 @@ public class DeanController {
     }
 
     @PostMapping("/reject")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> rejectDocument(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -90,6 +111,7 @@ public class DeanController {
     }
 
     @PostMapping("/forward-to-dean-academics")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToDeanAcademics(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -106,6 +128,7 @@ public class DeanController {
     }
 
     @PostMapping("/forward-to-industry-relations")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToIndustryRelations(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -121,6 +144,7 @@ public class DeanController {
     }
 
     @PostMapping("/forward-to-rnd")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToRnd(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -136,6 +160,7 @@ public class DeanController {
     }
 
     @PostMapping("/forward-to-coe")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToCoe(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -151,6 +176,7 @@ public class DeanController {
     }
 
     @PostMapping("/forward-to-dean")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToDean(
             @RequestBody DocumentActionRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -170,23 +196,24 @@ public class DeanController {
     }
 
     @GetMapping("/document/{documentId}/download")
+    @QueryBudget(6)
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
             @AuthenticationPrincipal UserDetails userDetails) throws IOException {
 
         User dean = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
-        Document document = documentService.getDocumentById(documentId)
+        DocumentDTO document = documentService.getDocumentSnapshot(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
+        if (document.getDeanId() == null || !document.getDeanId().equals(dean.getId())) {
             throw new RuntimeException("Access denied");
         }
 
-        if (document.getData() == null) {
-             throw new RuntimeException("Document content not found");
-        }
+        byte[] data = documentService.getDocumentData(document);
+
+        auditLog.recordDownload(document.getId(), dean.getId());
 
-        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(document.getData());
+        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(data);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(document.getFileType()))
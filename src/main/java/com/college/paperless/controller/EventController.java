@@ -0,0 +1,28 @@
+package com.college.paperless.controller;
+
+import com.college.paperless.metrics.QueryBudget;
+import com.college.paperless.security.JwtAuthenticationFilter;
+import com.college.paperless.service.InboxEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final InboxEventBroadcaster broadcaster;
+
+    // The user id comes from the token rather than the database: with open-in-view a JPA lookup here
+    // would pin a pooled connection for the whole lifetime of the stream.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(4)
+    public SseEmitter streamEvents(@RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId) {
+        return broadcaster.subscribe(userId);
+    }
+}
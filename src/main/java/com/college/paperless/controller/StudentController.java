@@ -1,12 +1,16 @@
 package com.college.paperless.controller;
 
+import com.college.paperless.audit.AuditLog;
 import com.college.paperless.dto.DocumentDTO;
 import com.college.paperless.dto.UserDTO;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
 import com.college.paperless.security.CustomUserDetailsService;
+import com.college.paperless.security.JwtAuthenticationFilter;
 import com.college.paperless.service.DocumentService;
 import com.college.paperless.service.FileStorageService;
+import com.college.paperless.service.InboxVersionService;
 import com.college.paperless.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
@@ -20,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -37,8 +42,11 @@ public class StudentController {
     private final DocumentService documentService;
     private final UserService userService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
+    private final InboxVersionService inboxVersionService;
 
     @PostMapping("/upload")
+    @QueryBudget(10)
     public ResponseEntity<DocumentDTO> uploadDocument(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "description", required = false) String description,
@@ -51,10 +59,16 @@ public class StudentController {
     }
 
     @GetMapping("/documents")
+    @QueryBudget(10)
     public ResponseEntity<Page<DocumentDTO>> getMyDocuments(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (inboxVersionService.checkNotModified(webRequest, userId)) {
+            return null;
+        }
         User student = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
         Pageable pageable = PageRequest.of(page, size);
         Page<DocumentDTO> documents = documentService.getStudentDocuments(student, pageable)
@@ -64,6 +78,7 @@ public class StudentController {
     }
 
     @PostMapping("/forward/{documentId}")
+    @QueryBudget(14)
     public ResponseEntity<DocumentDTO> forwardToMentor(
             @PathVariable Long documentId,
             @RequestParam Long mentorId,
@@ -79,6 +94,7 @@ public class StudentController {
     }
 
     @GetMapping("/mentors")
+    @QueryBudget(8)
     public ResponseEntity<List<UserDTO>> getAllMentors(@AuthenticationPrincipal UserDetails userDetails) {
         User student = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
 
@@ -91,23 +107,24 @@ public class StudentController {
     }
 
     @GetMapping("/document/{documentId}/download")
+    @QueryBudget(6)
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
             @AuthenticationPrincipal UserDetails userDetails) throws IOException {
 
         User student = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
-        Document document = documentService.getDocumentById(documentId)
+        DocumentDTO document = documentService.getDocumentSnapshot(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
 
-        if (!document.getStudent().getId().equals(student.getId())) {
+        if (!document.getStudentId().equals(student.getId())) {
             throw new RuntimeException("Unauthorized access");
         }
 
-        if (document.getData() == null) {
-             throw new RuntimeException("Document content not found");
-        }
+        byte[] data = documentService.getDocumentData(document);
+
+        auditLog.recordDownload(document.getId(), student.getId());
 
-        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(document.getData());
+        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(data);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(document.getFileType()))
@@ -117,6 +134,7 @@ public class StudentController {
     }
 
     @DeleteMapping("/document/{documentId}")
+    @QueryBudget(10)
     public ResponseEntity<Map<String, String>> deleteDocument(
             @PathVariable Long documentId,
             @AuthenticationPrincipal UserDetails userDetails) {
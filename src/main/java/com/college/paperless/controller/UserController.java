@@ -2,10 +2,13 @@ package com.college.paperless.controller;
 
 import com.college.paperless.dto.UserDTO;
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.QueryBudget;
+import com.college.paperless.metrics.RequestTimings;
 import com.college.paperless.security.CustomUserDetailsService;
 import com.college.paperless.service.FileStorageService;
 import com.college.paperless.service.UserService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +17,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
@@ -23,6 +27,7 @@ public class UserController {
     private final CustomUserDetailsService userDetailsService;
 
     @PostMapping("/signature")
+    @QueryBudget(6)
     public ResponseEntity<?> uploadSignature(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam("file") MultipartFile file,
@@ -39,10 +44,14 @@ public class UserController {
 
             User user = userDetailsService.loadUserEntityByEmail(userDetails.getUsername());
 
-            User updatedUser = userService.updateSignature(user, file.getBytes(), role);
+            byte[] signature;
+            try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.BLOB)) {
+                signature = file.getBytes();
+            }
+            User updatedUser = userService.updateSignature(user, signature, role);
             return ResponseEntity.ok(UserDTO.fromEntity(updatedUser));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to upload signature", e);
             return ResponseEntity.internalServerError().body("Failed to upload signature: " + e.getMessage());
         }
     }
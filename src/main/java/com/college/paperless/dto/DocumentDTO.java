@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class DocumentDTO {
     private Long id;
+    // Document.version when this was built; snapshots in DocumentSnapshotCache are keyed by (id, version)
+    private long version;
     private String fileName;
     private String fileType;
     private Long fileSize;
@@ -82,6 +84,7 @@ public class DocumentDTO {
     public static DocumentDTO fromEntity(Document document) {
         DocumentDTO dto = new DocumentDTO();
         dto.setId(document.getId());
+        dto.setVersion(document.getVersion());
         dto.setFileName(document.getFileName());
         dto.setFileType(document.getFileType());
         dto.setFileSize(document.getFileSize());
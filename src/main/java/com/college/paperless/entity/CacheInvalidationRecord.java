@@ -0,0 +1,30 @@
+package com.college.paperless.entity;
+
+import com.college.paperless.cluster.InvalidationBatch;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One flushed batch of the database-polling invalidation transport; rows are purged after the retention period
+@Entity
+@Table(name = "cache_invalidations", indexes = @Index(name = "idx_cache_invalidations_sent_at", columnList = "sent_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    // Sender's clock, epoch milliseconds
+    @Column(name = "sent_at", nullable = false)
+    private long sentAt;
+
+    @Column(nullable = false, length = InvalidationBatch.MAX_PAYLOAD_LENGTH)
+    private String payload;
+}
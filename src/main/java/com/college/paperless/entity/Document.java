@@ -4,11 +4,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_status", columnList = "status_code"),
+        @Index(name = "idx_documents_student_inbox", columnList = "student_id, uploaded_at"),
+        @Index(name = "idx_documents_mentor_inbox", columnList = "mentor_id, status_code, forwarded_to_mentor_at"),
+        @Index(name = "idx_documents_hod_inbox", columnList = "hod_id, status_code, forwarded_to_hod_at"),
+        @Index(name = "idx_documents_dean_inbox", columnList = "dean_id, status_code, forwarded_to_dean_at"),
+        @Index(name = "idx_documents_dean_academics_inbox", columnList = "dean_academics_id, status_code, forwarded_to_dean_academics_at"),
+        @Index(name = "idx_documents_registrar_inbox", columnList = "registrar_id, status_code, forwarded_to_registrar_at"),
+        @Index(name = "idx_documents_coe_inbox", columnList = "coe_id, status_code, forwarded_to_coe_at"),
+        @Index(name = "idx_documents_rnd_inbox", columnList = "rnd_id, status_code, forwarded_to_rnd_at"),
+        @Index(name = "idx_documents_industry_relations_inbox", columnList = "industry_relations_id, status_code, forwarded_to_industry_relations_at"),
+        @Index(name = "idx_documents_exam_cell_inbox", columnList = "exam_cell_id, status_code, forwarded_to_exam_cell_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,8 +48,10 @@ public class Document {
     @Column(length = 1000)
     private String description;
 
+    // Written on insert and by the content updates in DocumentRepositoryCustom only; transitions load documents
+    // without it (findForTransition), so a flush of one must not write the column back
     @Lob
-    @Column(name = "data", columnDefinition = "LONGBLOB")
+    @Column(name = "data", columnDefinition = "LONGBLOB", updatable = false)
     private byte[] data;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -77,10 +94,22 @@ public class Document {
     @JoinColumn(name = "exam_cell_id")
     private User examCell;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 100)
+    // One byte per row and per index entry instead of the enum name; 0 only until migration 0003 has run
+    @Convert(converter = DocumentStatusConverter.class)
+    @ColumnDefault("0")
+    @Column(name = "status_code", nullable = false)
     private DocumentStatus status;
 
+    // Bumped by every transition; concurrent actions on the same document fail instead of overwriting each other
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Bumped only when the file content is replaced (approval stamps), so stamps fence each other but not transitions
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false)
+    private int dataVersion;
+
     @Column(name = "rejection_reason")
     private String rejectionReason;
 
@@ -129,6 +158,18 @@ public class Document {
     @Column(name = "forwarded_to_exam_cell_at")
     private LocalDateTime forwardedToExamCellAt;
 
+    // Ids of the student and every approver attached to this document.
+    // Reading the id of a lazy association does not initialize the proxy.
+    public Set<Long> participantIds() {
+        Set<Long> ids = new HashSet<>();
+        for (User user : new User[]{student, mentor, hod, dean, deanAcademics, registrar, coe, rnd, industryRelations, examCell}) {
+            if (user != null && user.getId() != null) {
+                ids.add(user.getId());
+            }
+        }
+        return ids;
+    }
+
     @PrePersist
     protected void onCreate() {
         uploadedAt = LocalDateTime.now();
@@ -137,34 +178,66 @@ public class Document {
         }
     }
 
+    // The codes are what the status_code column stores: never renumber or reuse one, append new statuses at the end
     public enum DocumentStatus {
-        DRAFT,
-        FORWARDED_TO_MENTOR,
-        APPROVED_BY_MENTOR,
-        REJECTED_BY_MENTOR,
-        FORWARDED_TO_HOD,
-        APPROVED_BY_HOD,
-        REJECTED_BY_HOD,
-        FORWARDED_TO_DEAN,
-        APPROVED_BY_DEAN,
-        REJECTED_BY_DEAN,
-        FORWARDED_TO_DEAN_ACADEMICS,
-        APPROVED_BY_DEAN_ACADEMICS,
-        REJECTED_BY_DEAN_ACADEMICS,
-        FORWARDED_TO_REGISTRAR,
-        APPROVED_BY_REGISTRAR,
-        REJECTED_BY_REGISTRAR,
-        FORWARDED_TO_COE,
-        APPROVED_BY_COE,
-        REJECTED_BY_COE,
-        FORWARDED_TO_RND,
-        APPROVED_BY_RND,
-        REJECTED_BY_RND,
-        FORWARDED_TO_INDUSTRY_RELATIONS,
-        APPROVED_BY_INDUSTRY_RELATIONS,
-        REJECTED_BY_INDUSTRY_RELATIONS,
-        FORWARDED_TO_EXAM_CELL,
-        APPROVED_BY_EXAM_CELL,
-        REJECTED_BY_EXAM_CELL
+        DRAFT(1),
+        FORWARDED_TO_MENTOR(2),
+        APPROVED_BY_MENTOR(3),
+        REJECTED_BY_MENTOR(4),
+        FORWARDED_TO_HOD(5),
+        APPROVED_BY_HOD(6),
+        REJECTED_BY_HOD(7),
+        FORWARDED_TO_DEAN(8),
+        APPROVED_BY_DEAN(9),
+        REJECTED_BY_DEAN(10),
+        FORWARDED_TO_DEAN_ACADEMICS(11),
+        APPROVED_BY_DEAN_ACADEMICS(12),
+        REJECTED_BY_DEAN_ACADEMICS(13),
+        FORWARDED_TO_REGISTRAR(14),
+        APPROVED_BY_REGISTRAR(15),
+        REJECTED_BY_REGISTRAR(16),
+        FORWARDED_TO_COE(17),
+        APPROVED_BY_COE(18),
+        REJECTED_BY_COE(19),
+        FORWARDED_TO_RND(20),
+        APPROVED_BY_RND(21),
+        REJECTED_BY_RND(22),
+        FORWARDED_TO_INDUSTRY_RELATIONS(23),
+        APPROVED_BY_INDUSTRY_RELATIONS(24),
+        REJECTED_BY_INDUSTRY_RELATIONS(25),
+        FORWARDED_TO_EXAM_CELL(26),
+        APPROVED_BY_EXAM_CELL(27),
+        REJECTED_BY_EXAM_CELL(28);
+
+        private static final DocumentStatus[] BY_CODE = new DocumentStatus[Byte.MAX_VALUE + 1];
+
+        static {
+            for (DocumentStatus status : values()) {
+                BY_CODE[status.code] = status;
+            }
+        }
+
+        private final byte code;
+
+        DocumentStatus(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte code() {
+            return code;
+        }
+
+        // No action leads out of these: rejections, and the final approvals of the registrar and exam cell routes
+        public boolean isTerminal() {
+            return this == APPROVED_BY_REGISTRAR || this == APPROVED_BY_EXAM_CELL || name().startsWith("REJECTED_BY_");
+        }
+
+        public static DocumentStatus ofCode(byte code) {
+            DocumentStatus status = code > 0 ? BY_CODE[code] : null;
+            if (status == null) {
+                throw new IllegalArgumentException("Unknown document status code " + code);
+            }
+            return status;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Cold copy of a completed document's file content, moved out of the documents row by the archive task.
+// The documents row keeps its metadata and a NULL data column; content reads fall back to this table.
+@Entity
+@Table(name = "document_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentArchive {
+
+    public enum Codec {
+        // Content that does not get smaller, such as PDFs whose streams are already compressed throughout
+        NONE,
+        GZIP
+    }
+
+    @Id
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Codec codec;
+
+    @Lob
+    @Column(name = "content", columnDefinition = "LONGBLOB", nullable = false)
+    private byte[] content;
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+
+    // Data version of the documents row when its content was archived
+    @Column(name = "data_version", nullable = false)
+    private int dataVersion;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public static DocumentArchive of(Long documentId, int dataVersion, byte[] data) {
+        byte[] compressed = gzip(data);
+        boolean smaller = compressed.length < data.length;
+        return new DocumentArchive(documentId, smaller ? Codec.GZIP : Codec.NONE, smaller ? compressed : data,
+                data.length, dataVersion, LocalDateTime.now());
+    }
+
+    public byte[] data() {
+        if (codec == Codec.NONE) {
+            return content;
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            byte[] data = in.readNBytes(originalSize);
+            if (data.length != originalSize || in.read() != -1) {
+                throw new IllegalStateException("Archived content of document " + documentId + " is not "
+                        + originalSize + " bytes");
+            }
+            return data;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archived content of document " + documentId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,19 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores Document.DocumentStatus by its explicit code, so reordering or renaming the enum never rewrites rows
+@Converter
+public class DocumentStatusConverter implements AttributeConverter<Document.DocumentStatus, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(Document.DocumentStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public Document.DocumentStatus convertToEntityAttribute(Byte code) {
+        return code == null ? null : Document.DocumentStatus.ofCode(code);
+    }
+}
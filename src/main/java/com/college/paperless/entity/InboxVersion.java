@@ -0,0 +1,21 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "inbox_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,72 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "jobs", indexes = {
+        // Claim order among the pending jobs that are visible
+        @Index(name = "idx_jobs_claim", columnList = "status, priority, visible_at"),
+        @Index(name = "idx_jobs_finished", columnList = "status, finished_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String type;
+
+    // JSON, read by the job's handler
+    @Column(length = 2000)
+    private String payload;
+
+    // Higher runs first
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // Claims so far, including ones whose worker never reported back
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    // Earliest time the job may be claimed: the retry time while waiting, the lease end while claimed
+    @Column(name = "visible_at", nullable = false)
+    private LocalDateTime visibleAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public enum Status {
+        PENDING,
+        SUCCEEDED,
+        // Out of attempts; kept until retried from the admin API
+        DEAD
+    }
+}
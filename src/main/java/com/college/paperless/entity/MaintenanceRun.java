@@ -0,0 +1,61 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "maintenance_runs", indexes = {
+        // Last start per task, which schedules the next one, and the history page
+        @Index(name = "idx_maintenance_runs_task", columnList = "task, started_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceRun {
+
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, CANCELLED, ABANDONED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String task;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false, length = 100)
+    private String node;
+
+    // Term of the leadership that started the run
+    @Column(name = "leader_term", nullable = false)
+    private long leaderTerm;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Rows or items the task reported handling
+    @Column(nullable = false)
+    private long processed;
+
+    // Time spent paused because the database was busy
+    @Column(name = "throttled_ms", nullable = false)
+    private long throttledMs;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -0,0 +1,54 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_pending", columnList = "dispatched_at, occurred_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(nullable = false, length = 100)
+    private String transition;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 100)
+    private Document.DocumentStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 100)
+    private Document.DocumentStatus toStatus;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+
+    // Comma separated user ids
+    @Column(name = "participant_ids", length = 500)
+    private String participantIds;
+
+    @Column(name = "rejection_reason")
+    private String rejectionReason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Set once every consumer has processed the event
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+}
@@ -0,0 +1,34 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per lease (the scheduler leadership, each maintenance task slot); rows are created once and reused
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 150)
+    private String name;
+
+    @Column(length = 100)
+    private String holder;
+
+    // Bumped whenever the lease changes hands, never on renewal
+    @Column(nullable = false)
+    private long term;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,16 +1,28 @@
 package com.college.paperless.entity;
 
+import com.college.paperless.config.CacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+// Second-level cached (see CacheConfig); the signature images are mapped by UserSignature so they never enter the cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USERS)
+@NaturalIdCache(region = CacheConfig.USERS_BY_EMAIL)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +32,7 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -46,11 +59,10 @@ public class User {
     @Column(name = "tts_id")
     private String ttsId;
 
-    @ElementCollection(targetClass = UserRole.class, fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Enumerated(EnumType.STRING)
-    @Column(name = "role")
-    private Set<UserRole> roles = new HashSet<>();
+    // One bit per UserRole (see UserRole.mask): loading a user is one row, and hasRole() / getRole() allocate nothing
+    @ColumnDefault("0")
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask;
 
     // Legacy role column for migration
     @Enumerated(EnumType.STRING)
@@ -59,22 +71,33 @@ public class User {
 
     @Transient
     public UserRole getRole() {
-        if (roles != null && !roles.isEmpty()) {
-            // Return HOD if present, else MENTOR, else first
-            if (roles.contains(UserRole.HOD)) return UserRole.HOD;
-            if (roles.contains(UserRole.DEAN)) return UserRole.DEAN;
-            if (roles.contains(UserRole.ADMIN)) return UserRole.ADMIN;
-            return roles.iterator().next();
+        if (roleMask != 0) {
+            // Return HOD if present, else DEAN, else ADMIN, else the highest bit (FACULTY and STUDENT are the lowest)
+            if (hasRole(UserRole.HOD)) return UserRole.HOD;
+            if (hasRole(UserRole.DEAN)) return UserRole.DEAN;
+            if (hasRole(UserRole.ADMIN)) return UserRole.ADMIN;
+            return UserRole.ofBit(Integer.SIZE - 1 - Integer.numberOfLeadingZeros(roleMask));
         }
-        // Fallback to legacy role if roles set is empty
+        // Fallback to legacy role if no role bits are set
         return legacyRole;
     }
 
     public void setRole(UserRole role) {
-        if (this.roles == null) {
-            this.roles = new HashSet<>();
-        }
-        this.roles.add(role);
+        roleMask |= role.mask();
+    }
+
+    public boolean hasRole(UserRole role) {
+        return (roleMask & role.mask()) != 0;
+    }
+
+    // Live view of the role bits: adding or removing roles through it updates roleMask
+    @Transient
+    public Set<UserRole> getRoles() {
+        return new RoleSet();
+    }
+
+    public void setRoles(Set<UserRole> roles) {
+        roleMask = UserRole.maskOf(roles);
     }
 
     @Column(name = "google_id")
@@ -89,14 +112,6 @@ public class User {
     @Column(name = "hod_signature_path")
     private String hodSignaturePath;
 
-    @Lob
-    @Column(name = "signature_data", columnDefinition = "LONGBLOB")
-    private byte[] signatureData;
-
-    @Lob
-    @Column(name = "hod_signature_data", columnDefinition = "LONGBLOB")
-    private byte[] hodSignatureData;
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -114,18 +129,116 @@ public class User {
         updatedAt = LocalDateTime.now();
     }
 
+    // Bits are persisted in role_mask: give new roles the next free bit, never renumber existing ones
     public enum UserRole {
-        STUDENT,
-        FACULTY,
-        MENTOR,
-        HOD,
-        ADMIN,
-        DEAN,
-        INDUSTRY_RELATIONS,
-        RND,
-        DEAN_ACADEMICS,
-        REGISTRAR,
-        COE,
-        EXAM_CELL
+        STUDENT(0),
+        FACULTY(1),
+        MENTOR(2),
+        HOD(3),
+        ADMIN(4),
+        DEAN(5),
+        INDUSTRY_RELATIONS(6),
+        RND(7),
+        DEAN_ACADEMICS(8),
+        REGISTRAR(9),
+        COE(10),
+        EXAM_CELL(11);
+
+        private static final UserRole[] BY_BIT = new UserRole[Integer.SIZE];
+
+        static {
+            for (UserRole role : values()) {
+                BY_BIT[role.bit] = role;
+            }
+        }
+
+        private final int bit;
+
+        UserRole(int bit) {
+            this.bit = bit;
+        }
+
+        public int mask() {
+            return 1 << bit;
+        }
+
+        public static UserRole ofBit(int bit) {
+            return BY_BIT[bit];
+        }
+
+        public static int maskOf(Collection<UserRole> roles) {
+            int mask = 0;
+            for (UserRole role : roles) {
+                mask |= role.mask();
+            }
+            return mask;
+        }
+    }
+
+    private final class RoleSet extends AbstractSet<UserRole> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof UserRole role && hasRole(role);
+        }
+
+        @Override
+        public boolean add(UserRole role) {
+            int before = roleMask;
+            roleMask |= role.mask();
+            return roleMask != before;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            roleMask &= ~((UserRole) o).mask();
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            roleMask = 0;
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(roleMask);
+        }
+
+        // Ascending bit order
+        @Override
+        public Iterator<UserRole> iterator() {
+            return new Iterator<>() {
+                private int remaining = roleMask;
+                private UserRole last;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public UserRole next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    last = UserRole.ofBit(Integer.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    roleMask &= ~last.mask();
+                    last = null;
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.college.paperless.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The signature images of a user. Same users row as User, mapped apart so that loading or caching a User
+// never reads the blobs; only PDF stamping and signature upload do. Never persisted on its own.
+@Entity
+@Table(name = "users")
+@Data
+@NoArgsConstructor
+public class UserSignature {
+
+    // Declared like User.id: whichever of the two entities the schema tool reads first defines the column
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Lob
+    @Column(name = "signature_data", columnDefinition = "LONGBLOB")
+    private byte[] signatureData;
+
+    @Lob
+    @Column(name = "hod_signature_data", columnDefinition = "LONGBLOB")
+    private byte[] hodSignatureData;
+}
@@ -0,0 +1,189 @@
+package com.college.paperless.event;
+
+import com.college.paperless.config.BackgroundThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer ring buffer that fans committed transitions out to every {@link DocumentEventConsumer}.
+ *
+ * Producers claim a sequence with a CAS on the cursor and never wait: when the slowest consumer (or the outbox
+ * completion sweep) is a full ring behind, {@link #tryPublish} returns false and the event stays in the outbox
+ * for replay. Each consumer owns a thread and a sequence; its lag is the distance to the cursor.
+ */
+@Slf4j
+@Component
+public class DocumentEventBus {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int INDEX_MASK = BUFFER_SIZE - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final DocumentTransitionEvent[] entries = new DocumentTransitionEvent[BUFFER_SIZE];
+    private final AtomicLongArray available = new AtomicLongArray(BUFFER_SIZE);
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    // Advanced by the outbox once it has recorded the events every consumer finished
+    private final AtomicLong completed = new AtomicLong(-1);
+
+    private final List<Worker> workers = new ArrayList<>();
+
+    public DocumentEventBus(List<DocumentEventConsumer> consumers, BackgroundThreads backgroundThreads) {
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            available.set(i, -1);
+        }
+        for (DocumentEventConsumer consumer : consumers) {
+            workers.add(new Worker(consumer, backgroundThreads.factory("event-bus-" + consumer.getName())));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Worker worker : workers) {
+            worker.running = false;
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    public boolean tryPublish(DocumentTransitionEvent event) {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            if (next - BUFFER_SIZE > minimumGatingSequence()) {
+                return false;
+            }
+        } while (!cursor.compareAndSet(current, next));
+
+        int index = (int) (next & INDEX_MASK);
+        entries[index] = event;
+        available.set(index, next);
+
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        return true;
+    }
+
+    // Sequence up to which every consumer has processed the ring
+    public long processedSequence() {
+        long min = cursor.get();
+        for (Worker worker : workers) {
+            min = Math.min(min, worker.sequence.get());
+        }
+        return min;
+    }
+
+    public long completedSequence() {
+        return completed.get();
+    }
+
+    // Only valid for sequences in (completedSequence, processedSequence]: those slots cannot be reused yet
+    public DocumentTransitionEvent eventAt(long sequence) {
+        return entries[(int) (sequence & INDEX_MASK)];
+    }
+
+    public void markCompleted(long sequence) {
+        completed.set(sequence);
+    }
+
+    public List<String> getConsumerNames() {
+        return workers.stream().map(worker -> worker.consumer.getName()).toList();
+    }
+
+    public long getLag(String consumerName) {
+        long head = cursor.get();
+        for (Worker worker : workers) {
+            if (worker.consumer.getName().equals(consumerName)) {
+                return head - worker.sequence.get();
+            }
+        }
+        return 0;
+    }
+
+    public long getOutboxPending() {
+        return cursor.get() - completed.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long head = cursor.get();
+        stats.put("published", head + 1);
+        stats.put("bufferSize", BUFFER_SIZE);
+        stats.put("outboxPending", head - completed.get());
+
+        Map<String, Object> consumers = new LinkedHashMap<>();
+        for (Worker worker : workers) {
+            Map<String, Object> consumerStats = new LinkedHashMap<>();
+            consumerStats.put("lag", head - worker.sequence.get());
+            consumerStats.put("processed", worker.processed.get());
+            consumerStats.put("failed", worker.failed.get());
+            consumers.put(worker.consumer.getName(), consumerStats);
+        }
+        stats.put("consumers", consumers);
+        return stats;
+    }
+
+    private long minimumGatingSequence() {
+        long min = completed.get();
+        for (Worker worker : workers) {
+            min = Math.min(min, worker.sequence.get());
+        }
+        return min;
+    }
+
+    private final class Worker implements Runnable {
+        private final DocumentEventConsumer consumer;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Worker(DocumentEventConsumer consumer, ThreadFactory threadFactory) {
+            this.consumer = consumer;
+            this.thread = threadFactory.newThread(this);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long next = sequence.get() + 1;
+                int index = (int) (next & INDEX_MASK);
+                if (available.get(index) != next) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                try {
+                    consumer.onEvent(entries[index]);
+                    processed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("Consumer {} failed on event for document {}", consumer.getName(),
+                            entries[index].getDocumentId(), e);
+                }
+                sequence.set(next);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.college.paperless.event;
+
+/**
+ * Receives committed workflow transitions from the {@link DocumentEventBus}.
+ * Each consumer runs on its own thread and sees every event in publication order.
+ * Delivery is at-least-once: events replayed from the outbox after a crash may be seen twice.
+ */
+public interface DocumentEventConsumer {
+
+    String getName();
+
+    void onEvent(DocumentTransitionEvent event);
+}
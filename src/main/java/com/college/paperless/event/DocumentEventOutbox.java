@@ -0,0 +1,118 @@
+package com.college.paperless.event;
+
+import com.college.paperless.entity.OutboxEvent;
+import com.college.paperless.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persists every transition in the transaction that performs it, hands it to the {@link DocumentEventBus}
+ * after commit, and marks it dispatched once all consumers are past it. Rows left undispatched (crash, full ring)
+ * are replayed by {@link OutboxReplayTask} on the scheduler's leader only, which makes delivery at-least-once;
+ * {@link OutboxPurgeTask} deletes dispatched rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentEventOutbox {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long REPLAY_AFTER_SECONDS = 60;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DocumentEventBus eventBus;
+
+    // Outbox ids currently in the ring, so replay does not publish them a second time
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(DocumentTransitionEvent event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setDocumentId(event.getDocumentId());
+        row.setTransition(event.getTransition());
+        row.setFromStatus(event.getFromStatus());
+        row.setToStatus(event.getToStatus());
+        row.setActorId(event.getActorId());
+        row.setAssigneeId(event.getAssigneeId());
+        row.setParticipantIds(event.getParticipantIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        row.setRejectionReason(event.getRejectionReason());
+        row.setOccurredAt(event.getOccurredAt());
+        event.setOutboxId(outboxEventRepository.save(row).getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void publish(DocumentTransitionEvent event) {
+        inFlight.add(event.getOutboxId());
+        if (!eventBus.tryPublish(event)) {
+            inFlight.remove(event.getOutboxId());
+            log.warn("Event bus full, outbox event {} will be replayed", event.getOutboxId());
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void markDispatched() {
+        long from = eventBus.completedSequence() + 1;
+        long upTo = eventBus.processedSequence();
+        if (upTo < from) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long sequence = from; sequence <= upTo; sequence++) {
+            ids.add(eventBus.eventAt(sequence).getOutboxId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            outboxEventRepository.markDispatched(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())), now);
+        }
+        ids.forEach(inFlight::remove);
+        eventBus.markCompleted(upTo);
+    }
+
+    // Returns the number of rows published again
+    public int replayUndispatched() {
+        List<OutboxEvent> rows = outboxEventRepository.findUndispatched(
+                LocalDateTime.now().minusSeconds(REPLAY_AFTER_SECONDS), PageRequest.of(0, BATCH_SIZE));
+        int replayed = 0;
+        for (OutboxEvent row : rows) {
+            if (!inFlight.add(row.getId())) {
+                continue;
+            }
+            if (!eventBus.tryPublish(toEvent(row))) {
+                inFlight.remove(row.getId());
+                break;
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private DocumentTransitionEvent toEvent(OutboxEvent row) {
+        Set<Long> participants = row.getParticipantIds() == null || row.getParticipantIds().isEmpty()
+                ? Set.of()
+                : Arrays.stream(row.getParticipantIds().split(",")).map(Long::valueOf).collect(Collectors.toSet());
+        return new DocumentTransitionEvent(
+                row.getId(),
+                row.getDocumentId(),
+                row.getTransition(),
+                row.getFromStatus(),
+                row.getToStatus(),
+                row.getActorId(),
+                row.getAssigneeId(),
+                participants,
+                row.getRejectionReason(),
+                row.getOccurredAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.college.paperless.event;
+
+import com.college.paperless.entity.Document;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentTransitionEvent {
+    // Id of the outbox row written in the same transaction; set before commit
+    private Long outboxId;
+
+    private Long documentId;
+
+    // DocumentService method that performed the transition, e.g. "hodApprove"
+    private String transition;
+
+    private Document.DocumentStatus fromStatus;
+    private Document.DocumentStatus toStatus;
+
+    private Long actorId;
+
+    // User whose queue just received the document (null for approve/reject)
+    private Long assigneeId;
+
+    // Everyone attached to the document: student plus every assigned approver
+    private Set<Long> participantIds;
+
+    // Reason given by the approver, only set for rejections
+    private String rejectionReason;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,57 @@
+package com.college.paperless.event;
+
+import com.college.paperless.repository.OutboxEventRepository;
+import com.college.paperless.scheduler.MaintenanceTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Deletes dispatched outbox rows past the retention period; undispatched rows stay until replayed
+@Component
+public class OutboxPurgeTask implements MaintenanceTask {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Duration retention;
+    private final Duration interval;
+
+    public OutboxPurgeTask(OutboxEventRepository outboxEventRepository,
+                           @Value("${paperless.outbox.retention:7d}") Duration retention,
+                           @Value("${paperless.outbox.purge-interval:1h}") Duration interval) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.retention = retention;
+        this.interval = interval;
+    }
+
+    @Override
+    public String getName() {
+        return "outbox.purge";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public long run(Context context) throws InterruptedException {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long deleted = 0;
+        while (context.awaitQuiet()) {
+            List<Long> ids = outboxEventRepository.findDispatchedBefore(before, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += outboxEventRepository.deleteByIds(ids);
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
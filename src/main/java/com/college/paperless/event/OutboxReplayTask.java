@@ -0,0 +1,42 @@
+package com.college.paperless.event;
+
+import com.college.paperless.scheduler.MaintenanceTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Publishes undispatched outbox rows again; on the leader only, so rows are not replayed by every node at once
+@Component
+public class OutboxReplayTask implements MaintenanceTask {
+
+    private final DocumentEventOutbox outbox;
+    private final Duration interval;
+
+    public OutboxReplayTask(DocumentEventOutbox outbox,
+                            @Value("${paperless.outbox.replay-interval:30s}") Duration interval) {
+        this.outbox = outbox;
+        this.interval = interval;
+    }
+
+    @Override
+    public String getName() {
+        return "outbox.replay";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    // Delivery of a lost transition should not wait for the database to calm down
+    @Override
+    public boolean isThrottled() {
+        return false;
+    }
+
+    @Override
+    public long run(Context context) {
+        return outbox.replayUndispatched();
+    }
+}
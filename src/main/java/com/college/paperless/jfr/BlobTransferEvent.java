@@ -0,0 +1,31 @@
+package com.college.paperless.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("paperless.BlobTransfer")
+@Label("Blob Transfer")
+@Category({"Paperless", "Transfer"})
+@StackTrace(false)
+public class BlobTransferEvent extends Event {
+
+    @Label("Direction")
+    public String direction;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,181 @@
+package com.college.paperless.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * On-demand JDK Flight Recorder recordings with the application's own events enabled on top of a JDK preset
+ * ("default" is safe for production, "profile" samples more). At most one recording runs at a time, and it keeps
+ * at most {@code paperless.jfr.max-size} bytes and {@code paperless.jfr.max-age} of data on disk, dropping the oldest
+ * chunks first. Dumps are written to {@code paperless.jfr.dir} on the server, which keeps the newest
+ * {@code paperless.jfr.max-dumps} of them.
+ *
+ * With no recording running the paperless events are disabled and cost a flag check where they are emitted.
+ */
+@Slf4j
+@Component
+public class FlightRecordings {
+
+    private static final List<Class<? extends Event>> EVENTS =
+            List.of(WorkflowTransitionEvent.class, PdfStampEvent.class, BlobTransferEvent.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${paperless.jfr.dir:./recordings}")
+    private String recordingDir;
+
+    @Value("${paperless.jfr.settings:profile}")
+    private String defaultSettings;
+
+    @Value("${paperless.jfr.max-age:30m}")
+    private Duration maxAge;
+
+    @Value("${paperless.jfr.max-size:256MB}")
+    private DataSize maxSize;
+
+    @Value("${paperless.jfr.max-dumps:20}")
+    private int maxDumps;
+
+    private Recording recording;
+    private String settings;
+
+    public synchronized Map<String, Object> start(String settingsName) {
+        if (recording != null) {
+            throw new IllegalStateException("A flight recording is already running: " + recording.getName());
+        }
+        String name = settingsName == null || settingsName.isBlank() ? defaultSettings : settingsName;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + name);
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName("paperless-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event).withoutStackTrace();
+        }
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize.toBytes());
+        started.start();
+
+        recording = started;
+        settings = name;
+        log.info("Started flight recording {} with {} settings", started.getName(), name);
+        return getStatus();
+    }
+
+    // Writes what has been recorded so far and keeps recording
+    public synchronized Map<String, Object> dump() {
+        Recording running = requireRecording();
+        Path file = write(running);
+        Map<String, Object> status = getStatus();
+        status.put("file", describe(file));
+        return status;
+    }
+
+    public synchronized Map<String, Object> stop() {
+        Recording running = requireRecording();
+        running.stop();
+        Path file = write(running);
+        running.close();
+        recording = null;
+        settings = null;
+        log.info("Stopped flight recording {}, dumped to {}", running.getName(), file);
+
+        Map<String, Object> status = getStatus();
+        status.put("file", describe(file));
+        return status;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("recording", recording != null && recording.getState() == RecordingState.RUNNING);
+        status.put("directory", Paths.get(recordingDir).toAbsolutePath().normalize().toString());
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("settings", settings);
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge().toString());
+            status.put("maxSize", recording.getMaxSize());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Recording requireRecording() {
+        if (recording == null) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        return recording;
+    }
+
+    private Path write(Recording source) {
+        try {
+            Path dir = Paths.get(recordingDir);
+            Files.createDirectories(dir);
+            Path file = dir.resolve(source.getName() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            source.dump(file);
+            deleteOldDumps(dir);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump flight recording", e);
+        }
+    }
+
+    // File names start with the recording's start time and end with the dump time, so they sort oldest first
+    private void deleteOldDumps(Path dir) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dir)) {
+            dumps = files.filter(p -> p.getFileName().toString().startsWith("paperless-"))
+                    .filter(p -> p.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+        }
+        for (Path old : dumps.subList(0, Math.max(0, dumps.size() - maxDumps))) {
+            Files.deleteIfExists(old);
+            log.info("Deleted flight recording dump {} beyond the newest {}", old.getFileName(), maxDumps);
+        }
+    }
+
+    private static Map<String, Object> describe(Path file) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("path", file.toAbsolutePath().normalize().toString());
+        try {
+            description.put("bytes", Files.size(file));
+        } catch (IOException e) {
+            description.put("bytes", -1);
+        }
+        return description;
+    }
+}
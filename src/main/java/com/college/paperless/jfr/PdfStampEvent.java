@@ -0,0 +1,37 @@
+package com.college.paperless.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("paperless.PdfStamp")
+@Label("PDF Stamp")
+@Category({"Paperless", "PDF"})
+@Description("PDFBox load, stamp and save of an approval signature")
+@StackTrace(false)
+public class PdfStampEvent extends Event {
+
+    @Label("Document Id")
+    public long documentId;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Pages")
+    public int pages;
+
+    @Label("Input Size")
+    @DataAmount
+    public long inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    public long outputBytes;
+}
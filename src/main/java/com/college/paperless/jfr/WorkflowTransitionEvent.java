@@ -0,0 +1,29 @@
+package com.college.paperless.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("paperless.WorkflowTransition")
+@Label("Workflow Transition")
+@Category({"Paperless", "Workflow"})
+@Description("A DocumentService transition, PDF stamping and the conditional update included")
+@StackTrace(false)
+public class WorkflowTransitionEvent extends Event {
+
+    @Label("Transition")
+    public String transition;
+
+    @Label("Document Id")
+    public long documentId;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Resulting Status")
+    @Description("Status after the transition, or conflict / error")
+    public String status;
+}
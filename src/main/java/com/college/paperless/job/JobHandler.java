@@ -0,0 +1,17 @@
+package com.college.paperless.job;
+
+import com.college.paperless.entity.Job;
+
+/**
+ * Runs the jobs of one type from the {@link JobQueue}, on whichever node claims them.
+ * Throwing schedules a retry with backoff, or dead-letters the job once its attempts are used up. A job can run
+ * more than once (a worker that outlives its visibility timeout is not stopped), but it completes in the
+ * transaction its handler runs in, so database writes made in that transaction apply once. Anything else a handler
+ * does, such as calling another service, must be idempotent.
+ */
+public interface JobHandler {
+
+    String getType();
+
+    void handle(Job job) throws Exception;
+}
@@ -0,0 +1,57 @@
+package com.college.paperless.job;
+
+import com.college.paperless.repository.JobRepository;
+import com.college.paperless.scheduler.MaintenanceTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Deletes succeeded jobs past the retention period; dead jobs stay until retried or removed by hand
+@Component
+public class JobPurgeTask implements MaintenanceTask {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JobRepository jobRepository;
+    private final Duration retention;
+    private final Duration interval;
+
+    public JobPurgeTask(JobRepository jobRepository,
+                        @Value("${paperless.jobs.retention:7d}") Duration retention,
+                        @Value("${paperless.jobs.purge-interval:1h}") Duration interval) {
+        this.jobRepository = jobRepository;
+        this.retention = retention;
+        this.interval = interval;
+    }
+
+    @Override
+    public String getName() {
+        return "jobs.purge";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public long run(Context context) throws InterruptedException {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long deleted = 0;
+        while (context.awaitQuiet()) {
+            List<Long> ids = jobRepository.findSucceededBefore(before, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += jobRepository.deleteByIds(ids);
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
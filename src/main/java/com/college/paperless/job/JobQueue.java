@@ -0,0 +1,187 @@
+package com.college.paperless.job;
+
+import com.college.paperless.entity.Job;
+import com.college.paperless.repository.JobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable job queue in the jobs table, shared by every node.
+ *
+ * A job enqueued inside a transaction is committed or rolled back with it. Workers claim batches with
+ * SELECT ... FOR UPDATE SKIP LOCKED, so concurrent claims on any number of nodes split the visible jobs between
+ * them without waiting on each other. A claim makes the job invisible for the visibility timeout; a worker that
+ * dies mid-job simply lets it reappear. Failures are retried with exponential backoff and jitter, and a job out of
+ * attempts is dead-lettered (status DEAD) until retried by hand. Every status change after a claim is fenced on the
+ * attempt number, so a worker whose lease was taken over cannot overwrite the newer outcome, and a job completes in
+ * the same transaction as the handler's writes (see {@link #runOnce}). Succeeded jobs are deleted by the
+ * {@link JobPurgeTask}.
+ */
+@Slf4j
+@Service
+public class JobQueue {
+
+    private final JobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final int defaultMaxAttempts;
+    private final Duration visibilityTimeout;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    // Local workers, woken when a job is committed on this node instead of waiting for their next poll
+    private final List<Runnable> enqueueListeners = new CopyOnWriteArrayList<>();
+
+    public JobQueue(JobRepository jobRepository, ObjectMapper objectMapper,
+                    @Value("${paperless.jobs.max-attempts:5}") int defaultMaxAttempts,
+                    @Value("${paperless.jobs.visibility-timeout:5m}") Duration visibilityTimeout,
+                    @Value("${paperless.jobs.backoff.base:5s}") Duration backoffBase,
+                    @Value("${paperless.jobs.backoff.max:15m}") Duration backoffMax) {
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.visibilityTimeout = visibilityTimeout;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+    }
+
+    @Transactional
+    public Job enqueue(String type, Object payload, int priority) {
+        LocalDateTime now = LocalDateTime.now();
+        Job job = new Job();
+        job.setType(type);
+        job.setPayload(toJson(payload));
+        job.setPriority(priority);
+        job.setStatus(Job.Status.PENDING);
+        job.setMaxAttempts(defaultMaxAttempts);
+        job.setVisibleAt(now);
+        job.setCreatedAt(now);
+        Job saved = jobRepository.save(job);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueueListeners.forEach(Runnable::run);
+                }
+            });
+        }
+        return saved;
+    }
+
+    public <T> T payload(Job job, Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(job.getPayload(), type);
+    }
+
+    void onEnqueue(Runnable listener) {
+        enqueueListeners.add(listener);
+    }
+
+    // Jobs that crashed their worker on every attempt come back from the lease with nothing left, and die here
+    @Transactional
+    public List<Job> claim(Collection<String> types, int limit, String worker) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = jobRepository.lockClaimable(types, now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        jobRepository.markClaimed(ids, worker, now, now.plus(visibilityTimeout));
+        List<Job> claimed = new ArrayList<>(ids.size());
+        for (Job job : jobRepository.findAllById(ids)) {
+            if (job.getAttempts() > job.getMaxAttempts()) {
+                jobRepository.markDead(job.getId(), job.getAttempts(), now,
+                        "Visibility timeout expired on the last attempt (" + job.getClaimedBy() + ")");
+                log.warn("Job {} ({}) dead-lettered: no attempts left after a lost lease", job.getId(), job.getType());
+            } else {
+                claimed.add(job);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Runs the handler and marks the job succeeded in one transaction, which the handler's own transactional
+     * methods join. A crash before the commit leaves neither the handler's writes nor the completion behind, and a
+     * worker whose lease was taken over rolls its writes back: the database effects of a job apply exactly once.
+     * Returns false when the lease was lost.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean runOnce(Job job, JobHandler handler) throws Exception {
+        handler.handle(job);
+        if (jobRepository.markSucceeded(job.getId(), job.getAttempts(), LocalDateTime.now()) == 1) {
+            return true;
+        }
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return false;
+    }
+
+    // Returns the new status: PENDING when a retry is scheduled, DEAD when out of attempts, null when the lease was lost
+    @Transactional
+    public Job.Status failed(Job job, Throwable error) {
+        String message = describe(error);
+        LocalDateTime now = LocalDateTime.now();
+        if (job.getAttempts() >= job.getMaxAttempts()) {
+            return jobRepository.markDead(job.getId(), job.getAttempts(), now, message) == 1 ? Job.Status.DEAD : null;
+        }
+        LocalDateTime retryAt = now.plus(backoff(job.getAttempts()));
+        return jobRepository.markRetry(job.getId(), job.getAttempts(), retryAt, message) == 1 ? Job.Status.PENDING : null;
+    }
+
+    @Transactional
+    public boolean retryDead(Long id) {
+        return jobRepository.requeueDead(id, defaultMaxAttempts, LocalDateTime.now()) == 1;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Job> findDead(int limit) {
+        return jobRepository.findByStatus(Job.Status.DEAD, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Job.Status, Long> countByStatus() {
+        Map<Job.Status, Long> counts = new EnumMap<>(Job.Status.class);
+        for (Job.Status status : Job.Status.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : jobRepository.countByStatus()) {
+            counts.put((Job.Status) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // base * 2^(attempt - 1), capped, then spread over 80-120% so jobs that failed together do not retry together
+    Duration backoff(int attempt) {
+        long millis = backoffBase.toMillis() << Math.min(attempt - 1, 20);
+        millis = Math.min(millis, backoffMax.toMillis());
+        return Duration.ofMillis((long) (millis * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return payload == null ? null : objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Job payload is not serializable", e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getClass().getSimpleName() + (error.getMessage() != null ? ": " + error.getMessage() : "");
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,195 @@
+package com.college.paperless.job;
+
+import com.college.paperless.cluster.InvalidationBus;
+import com.college.paperless.config.BackgroundThreads;
+import com.college.paperless.entity.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs jobs from the {@link JobQueue} on this node. One poller thread claims as many jobs as there are idle worker
+ * threads and hands them over; it claims again at once when a worker frees up and the last claim was full, and
+ * otherwise sleeps for the poll interval or until a job is enqueued on this node. Only the types with a
+ * {@link JobHandler} here are claimed. paperless.jobs.workers=0 (or enabled=false) makes the node enqueue-only.
+ */
+@Slf4j
+@Component
+public class JobWorker implements SmartLifecycle {
+
+    private final JobQueue jobQueue;
+    private final Map<String, JobHandler> handlers;
+    private final BackgroundThreads backgroundThreads;
+    private final MeterRegistry meterRegistry;
+    private final String workerId;
+    private final int workers;
+    private final boolean enabled;
+    private final long pollIntervalNanos;
+
+    private final Semaphore idle;
+    private ExecutorService executor;
+    private Thread poller;
+    private volatile boolean running;
+
+    private final Counter claimed;
+    private final Timer claims;
+
+    @Autowired
+    public JobWorker(JobQueue jobQueue, List<JobHandler> handlers, BackgroundThreads backgroundThreads,
+                     MeterRegistry meterRegistry, InvalidationBus invalidationBus,
+                     @Value("${paperless.jobs.enabled:true}") boolean enabled,
+                     @Value("${paperless.jobs.workers:4}") int workers,
+                     @Value("${paperless.jobs.poll-interval:1s}") Duration pollInterval) {
+        this(jobQueue, handlers, backgroundThreads, meterRegistry, invalidationBus.getNodeId(), enabled, workers,
+                pollInterval);
+    }
+
+    // Extra workers outside the context, e.g. several simulated nodes in one process
+    public JobWorker(JobQueue jobQueue, List<JobHandler> handlers, BackgroundThreads backgroundThreads,
+                     MeterRegistry meterRegistry, String workerId, boolean enabled, int workers, Duration pollInterval) {
+        this.jobQueue = jobQueue;
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::getType, Function.identity()));
+        this.backgroundThreads = backgroundThreads;
+        this.meterRegistry = meterRegistry;
+        this.workerId = workerId;
+        this.workers = workers;
+        this.enabled = enabled && workers > 0 && !handlers.isEmpty();
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.idle = new Semaphore(workers);
+        this.claimed = Counter.builder("paperless.jobs.claimed").tag("worker", workerId).register(meterRegistry);
+        this.claims = Timer.builder("paperless.jobs.claim")
+                .description("One claim transaction, whatever it returned")
+                .tag("worker", workerId)
+                .register(meterRegistry);
+        Gauge.builder("paperless.jobs.busy_workers", idle, s -> workers - s.availablePermits())
+                .tag("worker", workerId)
+                .register(meterRegistry);
+        jobQueue.onEnqueue(this::wakeUp);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, backgroundThreads.factory("job-worker"));
+        poller = backgroundThreads.factory("job-poller").newThread(this::poll);
+        poller.start();
+        log.info("Job worker {} running {} with {} threads", workerId, handlers.keySet(), workers);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(poller);
+        executor.shutdown();
+        try {
+            // Unfinished jobs are claimed again once their visibility timeout passes
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void wakeUp() {
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void poll() {
+        while (running) {
+            int free = idle.availablePermits();
+            if (free == 0) {
+                LockSupport.parkNanos(pollIntervalNanos);
+                continue;
+            }
+            List<Job> jobs;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                jobs = jobQueue.claim(handlers.keySet(), free, workerId);
+                sample.stop(claims);
+            } catch (RuntimeException e) {
+                log.warn("Claiming jobs failed: {}", e.getMessage());
+                LockSupport.parkNanos(pollIntervalNanos);
+                continue;
+            }
+            claimed.increment(jobs.size());
+            for (Job job : jobs) {
+                idle.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        idle.release();
+                        wakeUp();
+                    }
+                });
+            }
+            if (jobs.size() < free) {
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        // Queue wait of first attempts; a retry's wait would include its backoff
+        if (job.getAttempts() == 1) {
+            Timer.builder("paperless.jobs.wait")
+                    .description("From enqueue to first claim")
+                    .tag("type", job.getType())
+                    .register(meterRegistry)
+                    .record(Math.max(0, job.getCreatedAt().until(job.getClaimedAt(), ChronoUnit.MILLIS)), TimeUnit.MILLISECONDS);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = jobQueue.runOnce(job, handlers.get(job.getType())) ? "succeeded" : "lease_lost";
+        } catch (Exception e) {
+            Job.Status status = jobQueue.failed(job, e);
+            outcome = status == Job.Status.DEAD ? "dead" : status == null ? "lease_lost" : "retry";
+            if (status == Job.Status.DEAD) {
+                log.error("Job {} ({}) dead-lettered after {} attempts", job.getId(), job.getType(), job.getAttempts(), e);
+            } else {
+                log.warn("Job {} ({}) attempt {} failed: {}", job.getId(), job.getType(), job.getAttempts(), e.toString());
+            }
+        }
+        sample.stop(Timer.builder("paperless.jobs.duration")
+                .tag("type", job.getType())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,44 @@
+package com.college.paperless.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Adds the query count and Server-Timing headers while the response can still take headers, i.e. before the body is serialized
+@ControllerAdvice
+@RequiredArgsConstructor
+public class DiagnosticHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryCountFilter queryCountFilter;
+    private final RequestTimingFilter requestTimingFilter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return queryCountFilter.isHeaderEnabled() || requestTimingFilter.isHeaderEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        long count = QueryCounter.current();
+        if (queryCountFilter.isHeaderEnabled() && count >= 0 && request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            QueryCountFilter.writeHeaders(servletRequest.getServletRequest(), servletResponse.getServletResponse(), count);
+        }
+
+        // Set on the message headers, which the JSON converter overwrites with the final value
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null && timings.isHeaderRequested()) {
+            response.getHeaders().set(RequestTimingFilter.SERVER_TIMING_HEADER, timings.serverTiming());
+        }
+        return body;
+    }
+}
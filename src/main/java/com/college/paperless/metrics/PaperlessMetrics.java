@@ -0,0 +1,60 @@
+package com.college.paperless.metrics;
+
+import com.college.paperless.admission.AdmissionControl;
+import com.college.paperless.admission.Bulkhead;
+import com.college.paperless.admission.TokenBucketRateLimiter;
+import com.college.paperless.event.DocumentEventBus;
+import com.college.paperless.service.InboxEventBroadcaster;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges over the in-process pipelines: event bus lag, SSE connections and admission control saturation.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaperlessMetrics implements MeterBinder {
+
+    private final DocumentEventBus eventBus;
+    private final InboxEventBroadcaster broadcaster;
+    private final AdmissionControl admissionControl;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String consumer : eventBus.getConsumerNames()) {
+            Gauge.builder("paperless.events.lag", eventBus, bus -> bus.getLag(consumer))
+                    .description("Events published but not yet handled by the consumer")
+                    .tag("consumer", consumer)
+                    .register(registry);
+        }
+        Gauge.builder("paperless.events.outbox.pending", eventBus, DocumentEventBus::getOutboxPending)
+                .description("Events not yet marked dispatched in the outbox")
+                .register(registry);
+
+        Gauge.builder("paperless.sse.connections", broadcaster, InboxEventBroadcaster::getConnectionCount)
+                .register(registry);
+
+        for (Bulkhead bulkhead : admissionControl.getBulkheads()) {
+            Gauge.builder("paperless.admission.bulkhead.in_use", bulkhead, Bulkhead::getInUse)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            Gauge.builder("paperless.admission.bulkhead.limit", bulkhead, Bulkhead::getLimit)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            FunctionCounter.builder("paperless.admission.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("gate", "bulkhead")
+                    .tag("name", bulkhead.getName())
+                    .register(registry);
+        }
+        for (TokenBucketRateLimiter limiter : admissionControl.getLimiters()) {
+            FunctionCounter.builder("paperless.admission.rejected", limiter, TokenBucketRateLimiter::getRejected)
+                    .tag("gate", "rate_limit")
+                    .tag("name", limiter.getName())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.college.paperless.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements one call of the endpoint may issue, including authentication. {@link QueryCountFilter}
+ * flags calls over budget and refuses to start if a handler method has none. Raise a budget together with the
+ * change that needs the extra queries, never to silence a lazy-loading regression.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,126 @@
+package com.college.paperless.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Counts the SQL statements of every API request (authentication included) and records them as
+ * {@code paperless.sql.statements} per endpoint. Calls over the endpoint's {@link QueryBudget} are logged and
+ * counted in {@code paperless.sql.budget.exceeded}.
+ *
+ * With {@code paperless.query-count.header} on (dev and load tests), responses carry X-Query-Count and
+ * X-Query-Budget; {@link DiagnosticHeadersAdvice} sets them before the body is written.
+ */
+@Slf4j
+@Component
+// Inside RequestTimingFilter, which reads the count for the slow request log
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String BUDGET_HEADER = "X-Query-Budget";
+    static final String COUNT_ATTRIBUTE = "paperless.sqlStatements";
+
+    private final MeterRegistry registry;
+    private final boolean header;
+
+    public QueryCountFilter(MeterRegistry registry, @Value("${paperless.query-count.header:false}") boolean header) {
+        this.registry = registry;
+        this.header = header;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long count;
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            chain.doFilter(request, response);
+            count = scope.getCount();
+        }
+        request.setAttribute(COUNT_ATTRIBUTE, count);
+
+        // Responses without a body (304, empty 200) are still uncommitted here
+        if (header && !response.isCommitted()) {
+            writeHeaders(request, response, count);
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("paperless.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(count);
+
+        QueryBudget budget = budgetOf(request);
+        if (budget != null && count > budget.value()) {
+            log.warn("{} {} issued {} SQL statements, budget is {}", request.getMethod(), uri, count, budget.value());
+            Counter.builder("paperless.sql.budget.exceeded")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+        } else {
+            log.debug("{} {} issued {} SQL statements", request.getMethod(), uri, count);
+        }
+    }
+
+    public boolean isHeaderEnabled() {
+        return header;
+    }
+
+    static void writeHeaders(HttpServletRequest request, HttpServletResponse response, long count) {
+        response.setHeader(COUNT_HEADER, Long.toString(count));
+        QueryBudget budget = budgetOf(request);
+        if (budget != null) {
+            response.setHeader(BUDGET_HEADER, Integer.toString(budget.value()));
+        }
+    }
+
+    static QueryBudget budgetOf(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handler.getMethodAnnotation(QueryBudget.class);
+        }
+        return null;
+    }
+
+    // Every endpoint of the application must declare its budget up front
+    @EventListener
+    public void verifyBudgets(ContextRefreshedEvent event) {
+        RequestMappingHandlerMapping mapping = event.getApplicationContext()
+                .getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        List<String> missing = mapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.getBeanType().getPackageName().startsWith("com.college.paperless"))
+                .filter(handler -> !handler.hasMethodAnnotation(QueryBudget.class))
+                .map(handler -> handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName())
+                .sorted()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Endpoints without a @QueryBudget: " + missing);
+        }
+    }
+}
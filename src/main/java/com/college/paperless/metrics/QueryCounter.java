@@ -0,0 +1,78 @@
+package com.college.paperless.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Scope} is open.
+ *
+ * Installed as the session factory's statement inspector; the SQL passes through unchanged. Statements issued on
+ * other threads (event consumers, schedulers) are not attributed to any request.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+        }
+        return sql;
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    // Statements counted so far by the innermost open scope, or -1 when none is open
+    public static long current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? -1 : scope.count;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private long count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        // Fails when more than max statements ran inside this scope; for tests and harnesses
+        public void assertAtMost(long max, String what) {
+            if (count > max) {
+                throw new AssertionError(what + " issued " + count + " SQL statements, budget is " + max);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                parent.count += count;
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
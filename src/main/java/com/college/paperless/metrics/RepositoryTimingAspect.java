@@ -0,0 +1,19 @@
+package com.college.paperless.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Charges every Spring Data repository call, lazy loads excluded, to the db phase of the request timings
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.DB)) {
+            return joinPoint.proceed();
+        }
+    }
+}
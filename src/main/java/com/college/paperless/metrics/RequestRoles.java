@@ -0,0 +1,30 @@
+package com.college.paperless.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// Controllers are grouped per role under /api/<role>/..., which makes the path the cheapest role tag
+final class RequestRoles {
+
+    private static final String API_PREFIX = "/api/";
+
+    private RequestRoles() {
+    }
+
+    static String of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!path.startsWith(API_PREFIX)) {
+            return "none";
+        }
+        int end = path.indexOf('/', API_PREFIX.length());
+        return end < 0 ? path.substring(API_PREFIX.length()) : path.substring(API_PREFIX.length(), end);
+    }
+
+    static String current() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return of(attributes.getRequest());
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,90 @@
+package com.college.paperless.metrics;
+
+import com.college.paperless.security.JwtAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Opens the {@link RequestTimings} of every API request. With {@code paperless.timing.header} on, responses carry a
+ * Server-Timing header with the phase breakdown; requests slower than the threshold go to the {@link SlowRequestLog}.
+ *
+ * The header has to be set before the body is written: {@link DiagnosticHeadersAdvice} sets it for every body and
+ * {@link TimedJsonHttpMessageConverter} replaces it once serialization time is known. Bodyless responses get it here.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+    private final boolean header;
+
+    public RequestTimingFilter(SlowRequestLog slowRequestLog, @Value("${paperless.timing.header:true}") boolean header) {
+        this.slowRequestLog = slowRequestLog;
+        this.header = header;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.open(header);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimings.close();
+            // The SSE stream stays open after the filter returns; its duration says nothing
+            if (!request.isAsyncStarted()) {
+                finish(request, response, timings);
+            }
+        }
+    }
+
+    public boolean isHeaderEnabled() {
+        return header;
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        if (header && !response.isCommitted()) {
+            response.setHeader(SERVER_TIMING_HEADER, timings.serverTiming());
+        }
+
+        long elapsed = timings.elapsedNanos();
+        if (!slowRequestLog.isSlow(elapsed)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object statements = request.getAttribute(QueryCountFilter.COUNT_ATTRIBUTE);
+        Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        SlowRequestLog.SlowRequest slow = new SlowRequestLog.SlowRequest(
+                Instant.now(),
+                request.getMethod(),
+                request.getRequestURI(),
+                pattern == null ? "UNKNOWN" : pattern.toString(),
+                response.getStatus(),
+                userId instanceof Long id ? id : null,
+                RequestTimings.millis(elapsed),
+                statements instanceof Long count ? count : null,
+                timings.phases());
+        slowRequestLog.record(slow);
+        log.info("Slow request {} {} ({} ms): {}", slow.method(), slow.path(), slow.totalMs(), timings.serverTiming());
+    }
+}
@@ -0,0 +1,121 @@
+package com.college.paperless.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request phase timer, bound to the request thread by {@link RequestTimingFilter}.
+ *
+ * Phases nest: while a nested phase runs, the enclosing one is paused, so the phase times add up to at most the
+ * request total and the rest is application time. Repository calls made by the user lookup count as user lookup.
+ * Outside a request every call is a no-op.
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        JWT, USER, DB, PDF, BLOB, JSON;
+
+        final String metricName = name().toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+    private static final Span NOOP = () -> {
+    };
+
+    private final long startNanos = System.nanoTime();
+    private final boolean header;
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private Phase active;
+    private long activeSince;
+
+    private RequestTimings(boolean header) {
+        this.header = header;
+    }
+
+    static RequestTimings open(boolean header) {
+        RequestTimings timings = new RequestTimings(header);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static Span time(Phase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || timings.active == phase || timings.active == Phase.USER) {
+            return NOOP;
+        }
+        return timings.enter(phase);
+    }
+
+    private Span enter(Phase phase) {
+        long now = System.nanoTime();
+        Phase parent = active;
+        if (parent != null) {
+            nanos[parent.ordinal()] += now - activeSince;
+        }
+        active = phase;
+        activeSince = now;
+        counts[phase.ordinal()]++;
+        return () -> {
+            long end = System.nanoTime();
+            nanos[phase.ordinal()] += end - activeSince;
+            active = parent;
+            activeSince = end;
+        };
+    }
+
+    boolean isHeaderRequested() {
+        return header;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    // e.g. total;dur=812.4, jwt;dur=0.3, user;dur=2.1;desc="2 calls", db;dur=14.8;desc="5 calls", pdf;dur=771.0
+    String serverTiming() {
+        StringBuilder value = new StringBuilder("total;dur=").append(millis(elapsedNanos()));
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            value.append(", ").append(phase.metricName).append(";dur=").append(millis(nanos[phase.ordinal()]));
+            if (count > 1) {
+                value.append(";desc=\"").append(count).append(" calls\"");
+            }
+        }
+        return value.toString();
+    }
+
+    Map<String, Object> phases() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                phases.put(phase.metricName, Map.of("ms", millis(nanos[phase.ordinal()]), "calls", count));
+            }
+        }
+        return phases;
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.college.paperless.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * cache.gets (hit / miss), puts, removals and evictions for every second-level cache region, plus
+ * paperless.cache.hit_ratio over the region's lifetime. Both read the JCache statistics MBeans.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final CacheManager hibernateCacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (String name : hibernateCacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = hibernateCacheManager.getCache(name);
+            JCacheMetrics.monitor(registry, cache, Tags.of("layer", "hibernate"));
+            ObjectName statistics = statisticsName(server, name);
+            if (statistics == null) {
+                continue;
+            }
+            Gauge.builder("paperless.cache.hit_ratio", server, mbeans -> hitRatio(mbeans, statistics))
+                    .description("Second-level cache hits / (hits + misses) since startup")
+                    .tag("cache", name)
+                    .register(registry);
+        }
+    }
+
+    // Registered by the provider when statistics are enabled; the manager part of the name is provider-specific
+    private static ObjectName statisticsName(MBeanServer server, String cache) {
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                if (cache.equals(name.getKeyProperty("Cache"))) {
+                    return name;
+                }
+            }
+            return null;
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double hitRatio(MBeanServer server, ObjectName statistics) {
+        try {
+            long hits = (Long) server.getAttribute(statistics, "CacheHits");
+            long misses = (Long) server.getAttribute(statistics, "CacheMisses");
+            return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+}
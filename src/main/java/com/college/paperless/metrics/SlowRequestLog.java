@@ -0,0 +1,66 @@
+package com.college.paperless.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent requests that took longer than {@code paperless.timing.slow-threshold-ms}, with their phase
+ * breakdown. A fixed-size ring: recording is one increment and one array store, old entries are overwritten.
+ */
+@Component
+public class SlowRequestLog {
+
+    public record SlowRequest(Instant at, String method, String path, String endpoint, int status, Long userId,
+                              double totalMs, Long sqlStatements, Map<String, Object> phases) {
+    }
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowRequest> ring;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public SlowRequestLog(@Value("${paperless.timing.slow-threshold-ms:2000}") long thresholdMs,
+                          @Value("${paperless.timing.slow-log-size:200}") int capacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    void record(SlowRequest request) {
+        long sequence = recorded.getAndIncrement();
+        ring.set((int) (sequence % ring.length()), request);
+    }
+
+    // Newest first
+    public List<SlowRequest> getEntries() {
+        long newest = recorded.get() - 1;
+        List<SlowRequest> entries = new ArrayList<>();
+        for (long sequence = newest; sequence >= 0 && sequence > newest - ring.length(); sequence--) {
+            SlowRequest entry = ring.get((int) (sequence % ring.length()));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMs", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        stats.put("capacity", ring.length());
+        stats.put("recorded", recorded.get());
+        stats.put("requests", getEntries());
+        return stats;
+    }
+}
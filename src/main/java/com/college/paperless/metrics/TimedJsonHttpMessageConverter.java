@@ -0,0 +1,53 @@
+package com.college.paperless.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Boot's JSON converter (it backs off for this bean) with serialization charged to the json phase.
+ *
+ * When the request wants a Server-Timing header the body is serialized into a buffer first, so the header can still
+ * include the json phase; otherwise it streams as before and the phase includes the socket write.
+ */
+@Component
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !timings.isHeaderRequested()) {
+            try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.JSON)) {
+                super.writeInternal(object, type, outputMessage);
+            }
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.JSON)) {
+            super.writeInternal(object, type, new BufferedOutputMessage(outputMessage.getHeaders(), buffer));
+        }
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(RequestTimingFilter.SERVER_TIMING_HEADER, timings.serverTiming());
+        headers.setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    private record BufferedOutputMessage(HttpHeaders getHeaders, OutputStream getBody) implements HttpOutputMessage {
+    }
+}
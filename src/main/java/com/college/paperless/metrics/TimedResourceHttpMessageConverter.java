@@ -0,0 +1,22 @@
+package com.college.paperless.metrics;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Replaces Boot's resource converter so that writing document downloads counts as blob I/O
+@Component
+public class TimedResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    @Override
+    protected void writeInternal(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.BLOB)) {
+            super.writeInternal(resource, outputMessage);
+        }
+    }
+}
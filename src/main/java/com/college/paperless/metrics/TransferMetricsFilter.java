@@ -0,0 +1,95 @@
+package com.college.paperless.metrics;
+
+import com.college.paperless.jfr.BlobTransferEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration and size of file uploads (multipart POSTs) and downloads, as {@code paperless.transfer} and
+ * {@code paperless.transfer.bytes}, tagged by direction and role, and as a {@link BlobTransferEvent} while a
+ * flight recording is running.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return direction(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String direction = direction(request);
+        String role = RequestRoles.of(request);
+        long start = System.nanoTime();
+        BlobTransferEvent event = new BlobTransferEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            String outcome = response.getStatus() < 400 ? "success" : "failure";
+            Timer.builder("paperless.transfer")
+                    .tag("direction", direction)
+                    .tag("role", role)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            long bytes = "upload".equals(direction) ? request.getContentLengthLong() : contentLength(response);
+            if (bytes >= 0 && "success".equals(outcome)) {
+                DistributionSummary.builder("paperless.transfer.bytes")
+                        .baseUnit("bytes")
+                        .tag("direction", direction)
+                        .tag("role", role)
+                        .register(registry)
+                        .record(bytes);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.direction = direction;
+                event.role = role;
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    private static String direction(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if ("POST".equals(request.getMethod()) && contentType != null && contentType.startsWith("multipart/")) {
+            return "upload";
+        }
+        if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/download")) {
+            return "download";
+        }
+        return null;
+    }
+
+    private static long contentLength(HttpServletResponse response) {
+        String header = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        try {
+            return header != null ? Long.parseLong(header) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
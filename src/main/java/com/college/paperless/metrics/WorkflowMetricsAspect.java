@@ -0,0 +1,70 @@
+package com.college.paperless.metrics;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.jfr.WorkflowTransitionEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every workflow transition in DocumentService as {@code paperless.document.transition}, tagged with the
+ * transition, the role the request came in through and the resulting status (or conflict/error).
+ * Runs outside the transaction advice so commit time (and conflicts raised at commit) is included.
+ * The same measurement is emitted as a {@link WorkflowTransitionEvent} while a flight recording is running.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+@RequiredArgsConstructor
+public class WorkflowMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * com.college.paperless.service.DocumentService.*(..))"
+            + " && !execution(* com.college.paperless.service.DocumentService.get*(..))")
+    public Object timeTransition(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        WorkflowTransitionEvent event = new WorkflowTransitionEvent();
+        event.begin();
+        String status = "error";
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            status = result instanceof Document document ? document.getStatus().name() : "DELETED";
+            return result;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            status = "conflict";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("paperless.document.transition")
+                    .description("Workflow transitions, including PDF stamping and the conditional update")
+                    .tag("transition", joinPoint.getSignature().getName())
+                    .tag("role", RequestRoles.current())
+                    .tag("status", status)
+                    .register(registry));
+            event.end();
+            if (event.shouldCommit()) {
+                event.transition = joinPoint.getSignature().getName();
+                event.documentId = documentId(result, joinPoint.getArgs());
+                event.role = RequestRoles.current();
+                event.status = status;
+                event.commit();
+            }
+        }
+    }
+
+    // Transitions take the document id first; uploads only know it from the result
+    private static long documentId(Object result, Object[] args) {
+        if (result instanceof Document document && document.getId() != null) {
+            return document.getId();
+        }
+        return args.length > 0 && args[0] instanceof Long id ? id : 0;
+    }
+}
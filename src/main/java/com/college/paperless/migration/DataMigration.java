@@ -0,0 +1,19 @@
+package com.college.paperless.migration;
+
+/**
+ * A one-time data change, applied at startup by {@link DataMigrationRunner} and recorded in data_migrations so it
+ * never runs again. Schema changes stay with Hibernate (ddl-auto); migrations only move data.
+ *
+ * A migration may be interrupted (crash, redeploy, two instances starting together) and then starts over, so it
+ * must be idempotent. Large tables should be processed in keyset batches with a transaction per batch.
+ */
+public interface DataMigration {
+
+    // Migrations run in id order, e.g. "0001-legacy-user-roles"
+    String getId();
+
+    String getDescription();
+
+    // Returns the number of rows changed
+    long migrate();
+}
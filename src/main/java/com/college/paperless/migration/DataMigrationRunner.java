@@ -0,0 +1,77 @@
+package com.college.paperless.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies the pending {@link DataMigration}s once, after Hibernate has updated the schema and before the web server
+ * takes requests. Completed ids are read in one query, so a boot with nothing pending costs a single SELECT.
+ * A migration that fails stops startup and is retried next boot. Disabled for the database-free CDS training run.
+ */
+@Slf4j
+@Component
+public class DataMigrationRunner implements SmartInitializingSingleton {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS data_migrations ("
+            + "id VARCHAR(100) NOT NULL PRIMARY KEY, "
+            + "description VARCHAR(255), "
+            + "applied_at TIMESTAMP NOT NULL, "
+            + "duration_ms BIGINT NOT NULL, "
+            + "rows_affected BIGINT NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<DataMigration> migrations;
+    private final boolean enabled;
+
+    public DataMigrationRunner(JdbcTemplate jdbcTemplate, List<DataMigration> migrations,
+                               @Value("${paperless.migration.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.migrations = migrations.stream().sorted(Comparator.comparing(DataMigration::getId)).toList();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("Data migrations are disabled");
+            return;
+        }
+        jdbcTemplate.execute(CREATE_TABLE);
+        Set<String> applied = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM data_migrations", String.class));
+
+        for (DataMigration migration : migrations) {
+            if (!applied.contains(migration.getId())) {
+                apply(migration);
+            }
+        }
+    }
+
+    private void apply(DataMigration migration) {
+        log.info("Applying data migration {}: {}", migration.getId(), migration.getDescription());
+        long start = System.nanoTime();
+        long rows = migration.migrate();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        try {
+            jdbcTemplate.update("INSERT INTO data_migrations (id, description, applied_at, duration_ms, rows_affected) "
+                            + "VALUES (?, ?, ?, ?, ?)",
+                    migration.getId(), migration.getDescription(), Timestamp.from(Instant.now()), durationMs, rows);
+        } catch (DuplicateKeyException e) {
+            // Another instance finished it at the same time; migrations are idempotent
+            log.info("Data migration {} was recorded by another instance", migration.getId());
+            return;
+        }
+        log.info("Data migration {} done: {} rows in {} ms", migration.getId(), rows, durationMs);
+    }
+}
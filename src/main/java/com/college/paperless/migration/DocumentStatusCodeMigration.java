@@ -0,0 +1,72 @@
+package com.college.paperless.migration;
+
+import com.college.paperless.entity.Document;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Copies documents.status (the enum name) into documents.status_code in keyset batches, then drops the old
+ * VARCHAR column. Only rows whose code is still 0 are touched, so a rerun continues where it stopped; the column
+ * is dropped last, so an interrupted run still finds it next time.
+ */
+@Slf4j
+@Component
+public class DocumentStatusCodeMigration implements DataMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public DocumentStatusCodeMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                       @Value("${paperless.migration.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String getId() {
+        return "0003-document-status-code";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replace documents.status with the numeric documents.status_code";
+    }
+
+    @Override
+    public long migrate() {
+        if (!Tables.columnExists(jdbcTemplate, "documents", "status")) {
+            return 0;
+        }
+        long updated = 0;
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM documents", Long.class);
+        if (maxId != null) {
+            String update = updateStatement();
+            for (long from = 0; from < maxId; from += batchSize) {
+                long lower = from;
+                long upper = Math.min(from + batchSize, maxId);
+                Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(update, lower, upper));
+                updated += rows == null ? 0 : rows;
+                log.debug("Encoded statuses of documents ({}, {}]: {} total", lower, upper, updated);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE documents DROP COLUMN status");
+        return updated;
+    }
+
+    // CASE status WHEN 'DRAFT' THEN 1 ... END, built from the enum so the codes cannot drift
+    private static String updateStatement() {
+        String codes = Arrays.stream(Document.DocumentStatus.values())
+                .map(status -> "WHEN '" + status.name() + "' THEN " + status.code())
+                .collect(Collectors.joining(" "));
+        return "UPDATE documents SET status_code = CASE status " + codes + " ELSE 0 END"
+                + " WHERE id > ? AND id <= ? AND status_code = 0";
+    }
+}
@@ -0,0 +1,39 @@
+package com.college.paperless.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops idx_users_role_mask from databases where ddl-auto created it. Role lookups test bits of role_mask, which a
+ * B-tree on the column cannot serve, so the index only cost writes. ddl-auto=update never drops indexes itself.
+ */
+@Component
+public class DropUserRoleMaskIndexMigration implements DataMigration {
+
+    private static final String INDEX = "idx_users_role_mask";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DropUserRoleMaskIndexMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getId() {
+        return "0004-drop-user-role-mask-index";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Drop idx_users_role_mask, which bit tests on users.role_mask cannot use";
+    }
+
+    @Override
+    public long migrate() {
+        if (!Tables.indexExists(jdbcTemplate, "users", INDEX)) {
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE users DROP INDEX " + INDEX);
+        return 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.college.paperless.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Copies the legacy users.role column into user_roles for users that have no roles yet. Replaces the runner that
+ * loaded every user (signature blobs included) and saved them one by one on each boot.
+ *
+ * Walks the id range in keyset batches, one INSERT ... SELECT and one transaction per batch, so no lock is held on
+ * the whole table and a rerun after an interruption only fills in what is still missing. Databases created after
+ * roles moved to users.role_mask have no user_roles table and nothing to copy.
+ */
+@Slf4j
+@Component
+public class LegacyUserRolesMigration implements DataMigration {
+
+    private static final String COPY_BATCH = "INSERT INTO user_roles (user_id, role) "
+            + "SELECT u.id, u.role FROM users u "
+            + "WHERE u.id > ? AND u.id <= ? AND u.role IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public LegacyUserRolesMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    @Value("${paperless.migration.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String getId() {
+        return "0001-legacy-user-roles";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Copy users.role into user_roles for users without roles";
+    }
+
+    @Override
+    public long migrate() {
+        if (!Tables.exists(jdbcTemplate, "user_roles")) {
+            return 0;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        long copied = 0;
+        for (long from = 0; from < maxId; from += batchSize) {
+            long lower = from;
+            long upper = Math.min(from + batchSize, maxId);
+            Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(COPY_BATCH, lower, upper));
+            copied += rows == null ? 0 : rows;
+            log.debug("Copied legacy roles for users ({}, {}]: {} total", lower, upper, copied);
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,64 @@
+package com.college.paperless.migration;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+final class Tables {
+
+    private Tables() {
+    }
+
+    // Databases created after a table was unmapped never had it; MySQL and H2 differ in identifier case
+    static boolean exists(JdbcTemplate jdbcTemplate, String table) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    static boolean columnExists(JdbcTemplate jdbcTemplate, String table, String column) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (boolean upper : new boolean[]{false, true}) {
+                String tableName = upper ? table.toUpperCase(Locale.ROOT) : table;
+                String columnName = upper ? column.toUpperCase(Locale.ROOT) : column;
+                try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, tableName, columnName)) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    static boolean indexExists(JdbcTemplate jdbcTemplate, String table, String index) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, name, false, true)) {
+                    while (indexes.next()) {
+                        if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -0,0 +1,74 @@
+package com.college.paperless.migration;
+
+import com.college.paperless.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Folds each user's user_roles rows, or the legacy users.role column when there are none, into users.role_mask.
+ * Same keyset batching as {@link LegacyUserRolesMigration}; only rows whose mask is still 0 are touched, so a rerun
+ * continues where it stopped. user_roles is left in place but no longer read or written.
+ */
+@Slf4j
+@Component
+public class UserRoleMaskMigration implements DataMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public UserRoleMaskMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 @Value("${paperless.migration.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String getId() {
+        return "0002-user-role-mask";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Fold user_roles and users.role into users.role_mask";
+    }
+
+    @Override
+    public long migrate() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        String update = updateStatement(Tables.exists(jdbcTemplate, "user_roles"));
+
+        long updated = 0;
+        for (long from = 0; from < maxId; from += batchSize) {
+            long lower = from;
+            long upper = Math.min(from + batchSize, maxId);
+            Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(update, lower, upper));
+            updated += rows == null ? 0 : rows;
+            log.debug("Computed role masks for users ({}, {}]: {} total", lower, upper, updated);
+        }
+        return updated;
+    }
+
+    // CASE role WHEN 'STUDENT' THEN 1 WHEN 'FACULTY' THEN 2 ... END, built from the enum so the bits cannot drift
+    private static String updateStatement(boolean withRoleTable) {
+        String bits = Arrays.stream(User.UserRole.values())
+                .map(role -> "WHEN '" + role.name() + "' THEN " + role.mask())
+                .collect(Collectors.joining(" "));
+        String legacy = "COALESCE(CASE u.role " + bits + " END, 0)";
+        String mask = withRoleTable
+                ? "COALESCE((SELECT SUM(CASE r.role " + bits + " ELSE 0 END) FROM user_roles r WHERE r.user_id = u.id), "
+                + legacy + ")"
+                : legacy;
+        return "UPDATE users u SET role_mask = " + mask + " WHERE u.id > ? AND u.id <= ? AND u.role_mask = 0";
+    }
+}
@@ -0,0 +1,30 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.CacheInvalidationRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRecordRepository extends JpaRepository<CacheInvalidationRecord, Long> {
+
+    // Read-write so the poll goes to the primary; replica lag would add to the invalidation lag
+    @Transactional
+    @Query("SELECT r FROM CacheInvalidationRecord r WHERE r.id > :after ORDER BY r.id")
+    List<CacheInvalidationRecord> findAfter(@Param("after") long after, Pageable pageable);
+
+    @Transactional
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM CacheInvalidationRecord r")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationRecord r WHERE r.sentAt < :before")
+    int deleteSentBefore(@Param("before") long before);
+}
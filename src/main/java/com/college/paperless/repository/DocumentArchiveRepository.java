@@ -0,0 +1,16 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.DocumentArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentArchiveRepository extends JpaRepository<DocumentArchive, Long> {
+
+    @Modifying
+    @Query("DELETE FROM DocumentArchive a WHERE a.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") Long documentId);
+}
@@ -0,0 +1,67 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.Document;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface DocumentRepositoryCustom {
+
+    /**
+     * Writes the fields changed on a loaded document as a single conditional statement:
+     * {@code UPDATE documents SET <changed>, version = version + 1 WHERE id = ? AND status = ? AND <assignee>_id = ?}.
+     * {@code requiredStatus} is the status the transition starts from, which the caller has checked the loaded
+     * document is in. No row lock is taken; if another action moved the document first, nothing is written and an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} is thrown.
+     *
+     * The document is detached afterwards and reflects the new row, version included.
+     */
+    Document updateIfUnchanged(Document document, Document.DocumentStatus requiredStatus,
+                               String assigneeAttribute, Long assigneeId);
+
+    /**
+     * Loads every column except the file content; participants are uninitialized references, so they resolve
+     * from the second-level user cache when touched. The result is not managed and has no data.
+     */
+    Optional<Document> findWithoutData(Long id);
+
+    /**
+     * Loads a document for a transition like {@link #findWithoutData}, but attached read-only to the persistence
+     * context so {@link #updateIfUnchanged} can write what the transition changed. The content is never read;
+     * transitions do not need it, and approvals leave stamping to the job.
+     */
+    Optional<Document> findForTransition(Long id);
+
+    /**
+     * Reads only the file content, provided the document is still at {@code version}, from the archive when it has
+     * been moved there. Throws {@link org.springframework.orm.ObjectOptimisticLockingFailureException} when it has
+     * moved on since; empty when the document is gone or has no content.
+     */
+    Optional<byte[]> findDataIfUnchanged(Long id, long version);
+
+    /**
+     * Writes a document's new file content, provided no other content was written since it was read:
+     * {@code UPDATE documents SET data = ?, data_version = data_version + 1, version = version + 1
+     * WHERE id = ? AND data_version = ?}. Transitions in between do not conflict. Throws
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} when the content has changed.
+     */
+    void replaceDataIfUnchanged(Document document);
+
+    /**
+     * Ids of terminal documents uploaded before {@code uploadedBefore} whose content is still in the documents row,
+     * in id order after {@code afterId}.
+     */
+    List<Long> findArchivable(long afterId, LocalDateTime uploadedBefore, int limit);
+
+    // Rows of id, data version and content for those of the documents that still have content
+    List<Object[]> findDataByIds(Collection<Long> ids);
+
+    /**
+     * Drops the content from the documents row once it is archived: {@code UPDATE documents SET data = NULL
+     * WHERE id = ? AND data_version = ?}. Neither version changes, so snapshots and readers are unaffected.
+     * Returns false when a stamp replaced the content since it was read.
+     */
+    boolean clearDataIfUnchanged(Long id, int dataVersion);
+}
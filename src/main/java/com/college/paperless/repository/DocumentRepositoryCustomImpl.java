@@ -0,0 +1,202 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.DocumentArchive;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.LockMode;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+    private static final String DATA = "data";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Document updateIfUnchanged(Document document, Document.DocumentStatus requiredStatus,
+                                      String assigneeAttribute, Long assigneeId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityEntry entry = session.getPersistenceContextInternal().getEntry(document);
+        if (entry == null) {
+            throw new IllegalStateException("Document " + document.getId() + " is not managed");
+        }
+
+        // Same dirty check Hibernate runs at flush, so only the fields the transition touched are written
+        EntityPersister persister = entry.getPersister();
+        Object[] current = persister.getValues(document);
+        int[] dirty = persister.findDirty(current, entry.getLoadedState(), document, session);
+        String[] names = persister.getPropertyNames();
+        int versionIndex = persister.getVersionProperty();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Document> update = cb.createCriteriaUpdate(Document.class);
+        Root<Document> root = update.from(Document.class);
+        if (dirty != null) {
+            for (int index : dirty) {
+                if (index != versionIndex) {
+                    update.set(root.get(names[index]), current[index]);
+                }
+            }
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(
+                cb.equal(root.get("id"), document.getId()),
+                cb.equal(root.get("status"), requiredStatus),
+                cb.equal(root.get(assigneeAttribute).get("id"), assigneeId));
+
+        // Detach first so the auto-flush before the bulk update does not write the entity as well
+        entityManager.detach(document);
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw new ObjectOptimisticLockingFailureException(Document.class, document.getId());
+        }
+        document.setVersion(document.getVersion() + 1);
+        return document;
+    }
+
+    @Override
+    public Optional<Document> findWithoutData(Long id) {
+        return loadWithoutData(id, false);
+    }
+
+    @Override
+    public Optional<Document> findForTransition(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Document.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            return Optional.of((Document) managed);
+        }
+        return loadWithoutData(id, true);
+    }
+
+    private Optional<Document> loadWithoutData(Long id, boolean attach) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Document.class);
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+
+        // Associations select the foreign key column only (no join), basic attributes their column
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Document> root = query.from(Document.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int index = 0; index < names.length; index++) {
+            if (!DATA.equals(names[index])) {
+                selections.add(types[index].isEntityType() ? root.get(names[index]).get("id") : root.get(names[index]));
+            }
+        }
+        query.multiselect(selections).where(cb.equal(root.get("id"), id));
+        List<Object[]> rows = entityManager.createQuery(query).getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] row = rows.get(0);
+        Object[] values = new Object[names.length];
+        int column = 0;
+        for (int index = 0; index < names.length; index++) {
+            if (DATA.equals(names[index])) {
+                continue;
+            }
+            Object value = row[column++];
+            values[index] = types[index].isEntityType() && value != null
+                    ? session.getReference(((EntityType) types[index]).getAssociatedEntityName(), value)
+                    : value;
+        }
+        Document document = new Document();
+        document.setId(id);
+        persister.setValues(document, values);
+        if (attach) {
+            // Loaded state without the content, which is not updatable, so updateIfUnchanged and flushes leave it alone
+            session.getPersistenceContextInternal().addEntity(document, Status.MANAGED, values.clone(),
+                    session.generateEntityKey(id, persister), document.getVersion(), LockMode.NONE, true, persister, false);
+        }
+        return Optional.of(document);
+    }
+
+    @Override
+    public Optional<byte[]> findDataIfUnchanged(Long id, long version) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "select d.version, d.data from Document d where d.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        if (((Number) rows.get(0)[0]).longValue() != version) {
+            throw new ObjectOptimisticLockingFailureException(Document.class, id);
+        }
+        byte[] data = (byte[]) rows.get(0)[1];
+        if (data != null) {
+            return Optional.of(data);
+        }
+        // Archiving clears the row and writes the archive in one transaction, so this read sees one or the other
+        return Optional.ofNullable(entityManager.find(DocumentArchive.class, id)).map(DocumentArchive::data);
+    }
+
+    @Override
+    public void replaceDataIfUnchanged(Document document) {
+        int updated = entityManager.createQuery("update Document d set d.data = :data, " +
+                        "d.dataVersion = d.dataVersion + 1, d.version = d.version + 1 " +
+                        "where d.id = :id and d.dataVersion = :dataVersion")
+                .setParameter("data", document.getData())
+                .setParameter("id", document.getId())
+                .setParameter("dataVersion", document.getDataVersion())
+                .executeUpdate();
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Document.class, document.getId());
+        }
+    }
+
+    @Override
+    public List<Long> findArchivable(long afterId, LocalDateTime uploadedBefore, int limit) {
+        List<Document.DocumentStatus> terminal = Arrays.stream(Document.DocumentStatus.values())
+                .filter(Document.DocumentStatus::isTerminal)
+                .toList();
+        return entityManager.createQuery("select d.id from Document d where d.id > :afterId " +
+                        "and d.status in :terminal and d.uploadedAt < :uploadedBefore and d.data is not null " +
+                        "order by d.id", Long.class)
+                .setParameter("afterId", afterId)
+                .setParameter("terminal", terminal)
+                .setParameter("uploadedBefore", uploadedBefore)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Object[]> findDataByIds(Collection<Long> ids) {
+        return entityManager.createQuery("select d.id, d.dataVersion, d.data from Document d " +
+                        "where d.id in :ids and d.data is not null", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public boolean clearDataIfUnchanged(Long id, int dataVersion) {
+        return entityManager.createQuery("update Document d set d.data = null " +
+                        "where d.id = :id and d.dataVersion = :dataVersion")
+                .setParameter("id", id)
+                .setParameter("dataVersion", dataVersion)
+                .executeUpdate() == 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.InboxVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InboxVersionRepository extends JpaRepository<InboxVersion, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO inbox_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void increment(@Param("userId") Long userId);
+
+    @Query("SELECT v.version FROM InboxVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    // Bumps the rows that already exist; one statement for all participants of a transition
+    @Modifying
+    @Query("UPDATE InboxVersion v SET v.version = v.version + 1 WHERE v.userId IN :userIds")
+    int incrementAll(@Param("userIds") Collection<Long> userIds);
+
+    // [userId, version] pairs, read as scalars so a managed InboxVersion cannot shadow the bulk update
+    @Query("SELECT v.userId, v.version FROM InboxVersion v WHERE v.userId IN :userIds")
+    List<Object[]> findVersionsByUserIds(@Param("userIds") Collection<Long> userIds);
+}
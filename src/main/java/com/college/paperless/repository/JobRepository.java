@@ -0,0 +1,68 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.Job;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    // Rows locked by another worker's claim are skipped instead of waited for, so workers never contend
+    @Query(value = "SELECT id FROM jobs WHERE status = 'PENDING' AND visible_at <= :now AND type IN :types " +
+            "ORDER BY priority DESC, visible_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimable(@Param("types") Collection<String> types, @Param("now") LocalDateTime now,
+                             @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Job j SET j.attempts = j.attempts + 1, j.claimedBy = :worker, j.claimedAt = :now, " +
+            "j.visibleAt = :leaseEnd WHERE j.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids, @Param("worker") String worker,
+                    @Param("now") LocalDateTime now, @Param("leaseEnd") LocalDateTime leaseEnd);
+
+    // The attempt fences out a worker whose lease expired and was taken over
+    @Modifying
+    @Query("UPDATE Job j SET j.status = 'SUCCEEDED', j.finishedAt = :now, j.lastError = NULL " +
+            "WHERE j.id = :id AND j.attempts = :attempt AND j.status = 'PENDING'")
+    int markSucceeded(@Param("id") Long id, @Param("attempt") int attempt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.visibleAt = :retryAt, j.lastError = :error " +
+            "WHERE j.id = :id AND j.attempts = :attempt AND j.status = 'PENDING'")
+    int markRetry(@Param("id") Long id, @Param("attempt") int attempt, @Param("retryAt") LocalDateTime retryAt,
+                  @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = 'DEAD', j.finishedAt = :now, j.lastError = :error " +
+            "WHERE j.id = :id AND j.attempts = :attempt AND j.status = 'PENDING'")
+    int markDead(@Param("id") Long id, @Param("attempt") int attempt, @Param("now") LocalDateTime now,
+                 @Param("error") String error);
+
+    // Attempts already made stay counted; the job gets extraAttempts more
+    @Modifying
+    @Query("UPDATE Job j SET j.status = 'PENDING', j.maxAttempts = j.attempts + :extraAttempts, j.visibleAt = :now, " +
+            "j.finishedAt = NULL WHERE j.id = :id AND j.status = 'DEAD'")
+    int requeueDead(@Param("id") Long id, @Param("extraAttempts") int extraAttempts, @Param("now") LocalDateTime now);
+
+    @Query("SELECT j FROM Job j WHERE j.status = :status ORDER BY j.finishedAt DESC")
+    List<Job> findByStatus(@Param("status") Job.Status status, Pageable pageable);
+
+    @Query("SELECT j.status, COUNT(j) FROM Job j GROUP BY j.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT j.id FROM Job j WHERE j.status = 'SUCCEEDED' AND j.finishedAt < :before ORDER BY j.id")
+    List<Long> findSucceededBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Job j WHERE j.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
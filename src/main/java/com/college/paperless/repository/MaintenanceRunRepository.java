@@ -0,0 +1,45 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.MaintenanceRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MaintenanceRunRepository extends JpaRepository<MaintenanceRun, Long> {
+
+    @Query("SELECT r.task, MAX(r.startedAt) FROM MaintenanceRun r GROUP BY r.task")
+    List<Object[]> findLastStarts();
+
+    @Query("SELECT r FROM MaintenanceRun r ORDER BY r.startedAt DESC, r.id DESC")
+    List<MaintenanceRun> findRecent(Pageable pageable);
+
+    // Runs left RUNNING by a node that died holding the slot, closed once the slot is taken over
+    @Transactional
+    @Modifying
+    @Query("UPDATE MaintenanceRun r SET r.status = 'ABANDONED', r.finishedAt = :now " +
+            "WHERE r.task = :task AND r.slot = :slot AND r.status = 'RUNNING'")
+    int abandonRunning(@Param("task") String task, @Param("slot") int slot, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MaintenanceRun r SET r.status = :status, r.finishedAt = :now, r.processed = :processed, " +
+            "r.throttledMs = :throttledMs, r.error = :error WHERE r.id = :id")
+    int finish(@Param("id") Long id, @Param("status") MaintenanceRun.Status status, @Param("now") LocalDateTime now,
+               @Param("processed") long processed, @Param("throttledMs") long throttledMs, @Param("error") String error);
+
+    @Query("SELECT r.id FROM MaintenanceRun r WHERE r.startedAt < :before AND r.status <> 'RUNNING' ORDER BY r.id")
+    List<Long> findFinishedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MaintenanceRun r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
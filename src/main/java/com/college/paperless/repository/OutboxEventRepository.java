@@ -0,0 +1,34 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT o FROM OutboxEvent o WHERE o.dispatchedAt IS NULL AND o.occurredAt < :before ORDER BY o.id")
+    List<OutboxEvent> findUndispatched(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.dispatchedAt = :dispatchedAt WHERE o.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    @Query("SELECT o.id FROM OutboxEvent o WHERE o.dispatchedAt < :before ORDER BY o.dispatchedAt")
+    List<Long> findDispatchedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
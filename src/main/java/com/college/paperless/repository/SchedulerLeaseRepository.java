@@ -0,0 +1,44 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // A plain INSERT: merging an entity with this id could overwrite a lease another node just acquired
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, term, expires_at) VALUES (:name, 0, :expiresAt)",
+            nativeQuery = true)
+    void create(@Param("name") String name, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Extends the lease only while it is still held; a lease that lapsed must be acquired again
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = :until " +
+            "WHERE l.name = :name AND l.holder = :holder AND l.expiresAt >= :now")
+    int renew(@Param("name") String name, @Param("holder") String holder, @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    // Of the nodes racing for a lapsed lease, the update of the first one makes the condition false for the rest.
+    // The holder may acquire again, which starts a new term
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.holder = :holder, l.term = l.term + 1, l.acquiredAt = :now, " +
+            "l.expiresAt = :until WHERE l.name = :name AND (l.expiresAt < :now OR l.holder = :holder)")
+    int acquire(@Param("name") String name, @Param("holder") String holder, @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = :now WHERE l.name = :name AND l.holder = :holder")
+    int release(@Param("name") String name, @Param("holder") String holder, @Param("now") LocalDateTime now);
+}
@@ -1,18 +1,53 @@
 package com.college.paperless.repository;
 
 import com.college.paperless.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByGoogleId(String googleId);
     boolean existsByEmail(String email);
-    long countByRolesContaining(User.UserRole role);
-    Optional<User> findFirstByRolesContaining(User.UserRole role);
-    Optional<User> findFirstByRolesContainingAndDepartment(User.UserRole role, String department);
+
+    // Role lookups test bits of role_mask; mask may combine several roles (any of them matches). No index can
+    // serve a bit test, so these scan users, which is small.
+    // The cast types the parameter for databases that cannot infer it inside BITAND (H2).
+    // Results are query-cached: the approvers hardly change, and any write to users drops the cached results.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select count(u) from User u where bitand(u.roleMask, cast(:mask as Integer)) <> 0")
+    long countByAnyRole(@Param("mask") int mask);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select u from User u where bitand(u.roleMask, cast(:mask as Integer)) <> 0 order by u.id")
+    List<User> findByAnyRole(@Param("mask") int mask);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select u from User u where bitand(u.roleMask, cast(:mask as Integer)) <> 0 order by u.id")
+    List<User> findByAnyRole(@Param("mask") int mask, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select u from User u where bitand(u.roleMask, cast(:mask as Integer)) <> 0 and u.department = :department order by u.id")
+    List<User> findByAnyRoleAndDepartment(@Param("mask") int mask, @Param("department") String department, Limit limit);
+
+    default long countByRole(User.UserRole role) {
+        return countByAnyRole(role.mask());
+    }
+
+    default Optional<User> findFirstByRole(User.UserRole role) {
+        return findByAnyRole(role.mask(), Limit.of(1)).stream().findFirst();
+    }
+
+    default Optional<User> findFirstByRoleAndDepartment(User.UserRole role, String department) {
+        return findByAnyRoleAndDepartment(role.mask(), department, Limit.of(1)).stream().findFirst();
+    }
 }
@@ -0,0 +1,14 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user by its email natural id. The email to id resolution and the user itself both come from the
+     * second-level cache when present, so a repeat lookup issues no SQL.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,21 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+    }
+}
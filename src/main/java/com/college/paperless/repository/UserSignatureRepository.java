@@ -0,0 +1,9 @@
+package com.college.paperless.repository;
+
+import com.college.paperless.entity.UserSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserSignatureRepository extends JpaRepository<UserSignature, Long> {
+}
@@ -0,0 +1,117 @@
+package com.college.paperless.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tells the {@link MaintenanceScheduler} whether the database is busy with traffic. Two signals, each smoothed over
+ * recent samples: statements executing on the server (MySQL/MariaDB Threads_running, so the load of every node
+ * counts) and this node's primary pool utilization, (active + waiting) / max connections. Busy starts when either
+ * goes over its limit and ends once both are back under 80% of it, so tasks do not flap on the threshold.
+ * Sampled on demand and at most once per sample interval, which in practice means on the leader only.
+ */
+@Slf4j
+@Component
+public class DatabaseLoadMonitor {
+
+    // Weight of the newest sample
+    private static final double SMOOTHING = 0.3;
+    private static final double RESUME_FRACTION = 0.8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxThreadsRunning;
+    private final double maxPoolUtilization;
+    private final long sampleIntervalNanos;
+
+    // Null until the first sample; false on other databases or without the privilege to read server status
+    private Boolean serverStatus;
+    private double threadsRunning;
+    private double poolUtilization;
+    private long lastSampleNanos;
+    private volatile boolean busy;
+
+    public DatabaseLoadMonitor(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${paperless.scheduler.throttle.max-threads-running:16}") int maxThreadsRunning,
+                               @Value("${paperless.scheduler.throttle.max-pool-utilization:0.5}") double maxPoolUtilization,
+                               @Value("${paperless.scheduler.throttle.sample-interval:5s}") Duration sampleInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxThreadsRunning = maxThreadsRunning;
+        this.maxPoolUtilization = maxPoolUtilization;
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+        Gauge.builder("paperless.scheduler.db.threads_running", this, monitor -> monitor.threadsRunning)
+                .description("Smoothed server-wide Threads_running; 0 where the database does not report it")
+                .register(meterRegistry);
+        Gauge.builder("paperless.scheduler.db.pool_utilization", this, monitor -> monitor.poolUtilization)
+                .register(meterRegistry);
+        Gauge.builder("paperless.scheduler.db.busy", this, monitor -> monitor.busy ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public synchronized boolean isBusy() {
+        long now = System.nanoTime();
+        boolean first = lastSampleNanos == 0;
+        if (first || now - lastSampleNanos >= sampleIntervalNanos) {
+            lastSampleNanos = now;
+            double running = sampleThreadsRunning();
+            double pool = samplePoolUtilization();
+            threadsRunning = first ? running : threadsRunning + SMOOTHING * (running - threadsRunning);
+            poolUtilization = first ? pool : poolUtilization + SMOOTHING * (pool - poolUtilization);
+            boolean over = threadsRunning > maxThreadsRunning || poolUtilization > maxPoolUtilization;
+            boolean under = threadsRunning <= maxThreadsRunning * RESUME_FRACTION
+                    && poolUtilization <= maxPoolUtilization * RESUME_FRACTION;
+            if (busy ? under : over) {
+                busy = !busy;
+                log.info("Database {}: {} threads running, pool {}% used", busy ? "busy, pausing maintenance" : "quiet again",
+                        Math.round(threadsRunning), Math.round(poolUtilization * 100));
+            }
+        }
+        return busy;
+    }
+
+    private double sampleThreadsRunning() {
+        try {
+            if (serverStatus == null) {
+                serverStatus = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                    String product = connection.getMetaData().getDatabaseProductName();
+                    return product.contains("MySQL") || product.contains("MariaDB");
+                });
+            }
+            if (!serverStatus) {
+                return 0;
+            }
+            Long running = jdbcTemplate.query("SHOW GLOBAL STATUS LIKE 'Threads_running'",
+                    rs -> rs.next() ? rs.getLong(2) : 0L);
+            // Not counting this statement
+            return Math.max(0, running - 1);
+        } catch (DataAccessException e) {
+            log.warn("Cannot read Threads_running, throttling on pool utilization only: {}", e.getMessage());
+            serverStatus = false;
+            return 0;
+        }
+    }
+
+    private double samplePoolUtilization() {
+        double max = sumPrimaryPool("hikaricp.connections.max");
+        return max > 0
+                ? (sumPrimaryPool("hikaricp.connections.active") + sumPrimaryPool("hikaricp.connections.pending")) / max
+                : 0;
+    }
+
+    // The replica pool only serves reads; maintenance competes for the primary
+    private double sumPrimaryPool(String meter) {
+        return meterRegistry.find(meter).gauges().stream()
+                .filter(gauge -> !"replica".equals(gauge.getId().getTag("pool")))
+                .mapToDouble(Gauge::value)
+                .sum();
+    }
+}
@@ -0,0 +1,53 @@
+package com.college.paperless.scheduler;
+
+import com.college.paperless.repository.MaintenanceRunRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Keeps the run history to the retention period, which must exceed every task's interval: the last run schedules the next
+@Component
+public class MaintenanceRunPurge implements MaintenanceTask {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MaintenanceRunRepository runRepository;
+    private final Duration retention;
+
+    public MaintenanceRunPurge(MaintenanceRunRepository runRepository,
+                               @Value("${paperless.scheduler.history.retention:30d}") Duration retention) {
+        this.runRepository = runRepository;
+        this.retention = retention;
+    }
+
+    @Override
+    public String getName() {
+        return "scheduler.history-purge";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return Duration.ofDays(1);
+    }
+
+    @Override
+    public long run(Context context) throws InterruptedException {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long deleted = 0;
+        while (context.awaitQuiet()) {
+            List<Long> ids = runRepository.findFinishedBefore(before, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += runRepository.deleteByIds(ids);
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,417 @@
+package com.college.paperless.scheduler;
+
+import com.college.paperless.cluster.InvalidationBus;
+import com.college.paperless.config.BackgroundThreads;
+import com.college.paperless.entity.MaintenanceRun;
+import com.college.paperless.entity.SchedulerLease;
+import com.college.paperless.repository.MaintenanceRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the {@link MaintenanceTask}s exactly once across the cluster.
+ *
+ * Every node competes for the scheduler.leader lease; the holder renews it every renew interval and only the
+ * holder starts runs. It stops acting as leader a renew interval before the lease could expire for the others,
+ * so a node that stalls (GC pause, lost database) steps down before anyone can take over. Each run also holds one
+ * of its task's slot leases (task:name:0 .. maxConcurrency - 1) until it finishes, so a run still going on a
+ * former leader keeps the new one from starting the same task twice, and runs left behind by a node that died are
+ * closed as ABANDONED when their slot is taken over.
+ *
+ * Runs are recorded in maintenance_runs. A new leader schedules each task from its last start there, so failover
+ * neither skips nor repeats a run; the next start is the interval after the last one, spread by the jitter.
+ * Throttled tasks are not started while the {@link DatabaseLoadMonitor} reports the database busy, and wait in
+ * {@link MaintenanceTask.Context#awaitQuiet()} between batches when it becomes busy during a run.
+ */
+@Slf4j
+@Component
+public class MaintenanceScheduler implements SmartLifecycle {
+
+    static final String LEADER_LEASE = "scheduler.leader";
+    private static final long TICK_MILLIS = 1000;
+    private static final long QUIET_POLL_MILLIS = 1000;
+
+    private final Map<String, MaintenanceTask> tasks;
+    private final SchedulerLeases leases;
+    private final MaintenanceRunRepository runRepository;
+    private final DatabaseLoadMonitor loadMonitor;
+    private final BackgroundThreads backgroundThreads;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+    private final Duration renewInterval;
+    private final double jitter;
+    private final int threads;
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService runner;
+    private volatile boolean running;
+
+    // -1 while not the leader
+    private volatile long leaderTerm = -1;
+    private volatile long leaderValidUntilNanos;
+    // Ticker thread only
+    private long nextRenewalNanos;
+    private final Map<String, LocalDateTime> nextStarts = new HashMap<>();
+
+    private final Set<String> deferred = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<Run>> active = new ConcurrentHashMap<>();
+
+    public MaintenanceScheduler(List<MaintenanceTask> tasks, SchedulerLeases leases,
+                                MaintenanceRunRepository runRepository, DatabaseLoadMonitor loadMonitor,
+                                BackgroundThreads backgroundThreads, MeterRegistry meterRegistry,
+                                InvalidationBus invalidationBus,
+                                @Value("${paperless.scheduler.enabled:true}") boolean enabled,
+                                @Value("${paperless.scheduler.lease-duration:30s}") Duration leaseDuration,
+                                @Value("${paperless.scheduler.renew-interval:10s}") Duration renewInterval,
+                                @Value("${paperless.scheduler.jitter:0.1}") double jitter,
+                                @Value("${paperless.scheduler.threads:2}") int threads) {
+        if (renewInterval.multipliedBy(2).compareTo(leaseDuration) > 0) {
+            throw new IllegalStateException("paperless.scheduler.renew-interval must be at most half the lease duration");
+        }
+        this.tasks = tasks.stream().collect(Collectors.toMap(MaintenanceTask::getName, Function.identity(),
+                (a, b) -> {
+                    throw new IllegalStateException("Two maintenance tasks named " + a.getName());
+                }, LinkedHashMap::new));
+        this.leases = leases;
+        this.runRepository = runRepository;
+        this.loadMonitor = loadMonitor;
+        this.backgroundThreads = backgroundThreads;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = invalidationBus.getNodeId();
+        this.enabled = enabled && !tasks.isEmpty();
+        this.leaseDuration = leaseDuration;
+        this.renewInterval = renewInterval;
+        this.jitter = jitter;
+        this.threads = threads;
+        Gauge.builder("paperless.scheduler.leader", this, scheduler -> scheduler.isLeader() ? 1 : 0)
+                .description("1 on the node currently running maintenance tasks")
+                .register(meterRegistry);
+        Gauge.builder("paperless.scheduler.running", active, runs -> runs.values().stream().mapToInt(List::size).sum())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        runner = Executors.newFixedThreadPool(threads, backgroundThreads.factory("maintenance"));
+        ticker = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("maintenance-scheduler"));
+        ticker.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("Maintenance scheduler on {} with tasks {}", nodeId, tasks.keySet());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.shutdown();
+        runner.shutdown();
+        try {
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+            // Runs see isCancelled() and should return at their next batch
+            runner.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (leaderTerm >= 0) {
+            // Lets another node take over now instead of when the lease expires
+            try {
+                leases.release(LEADER_LEASE, nodeId);
+            } catch (DataAccessException e) {
+                log.warn("Could not release the scheduler lease: {}", e.getMessage());
+            }
+            leaderTerm = -1;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isLeader() {
+        return leaderTerm >= 0 && System.nanoTime() < leaderValidUntilNanos;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("node", nodeId);
+        status.put("enabled", enabled);
+        Optional<SchedulerLease> lease = leases.find(LEADER_LEASE);
+        status.put("leader", lease.map(SchedulerLease::getHolder).orElse(null));
+        status.put("leaderTerm", lease.map(SchedulerLease::getTerm).orElse(null));
+        status.put("leaseExpiresAt", lease.map(SchedulerLease::getExpiresAt).orElse(null));
+        List<Map<String, Object>> taskStatus = new ArrayList<>();
+        for (MaintenanceTask task : tasks.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", task.getName());
+            entry.put("interval", task.getInterval().toString());
+            entry.put("maxConcurrency", task.getMaxConcurrency());
+            entry.put("throttled", task.isThrottled());
+            // Known on the leader only
+            entry.put("running", active.getOrDefault(task.getName(), List.of()).size());
+            entry.put("deferred", deferred.contains(task.getName()));
+            taskStatus.add(entry);
+        }
+        status.put("tasks", taskStatus);
+        return status;
+    }
+
+    public List<MaintenanceRun> findRecentRuns(int limit) {
+        return runRepository.findRecent(PageRequest.of(0, limit));
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            if (now >= nextRenewalNanos) {
+                // Jittered so that the followers do not all try to take a lapsed lease in the same instant
+                nextRenewalNanos = now + (long) (renewInterval.toNanos() * ThreadLocalRandom.current().nextDouble(0.8, 1.0));
+                refreshLeadership();
+                renewSlots();
+            }
+            if (!isLeader()) {
+                return;
+            }
+            LocalDateTime wallClock = LocalDateTime.now();
+            for (MaintenanceTask task : tasks.values()) {
+                if (running && isDue(task, wallClock)) {
+                    startIfQuiet(task, wallClock);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Maintenance scheduler tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshLeadership() {
+        // Validity counts from before the round trip, so a slow database only shortens it
+        long validUntil = leaseValidUntil(System.nanoTime());
+        try {
+            if (leaderTerm >= 0 && leases.renew(LEADER_LEASE, nodeId, leaseDuration)) {
+                leaderValidUntilNanos = validUntil;
+                return;
+            }
+            Optional<Long> term = leases.tryAcquire(LEADER_LEASE, nodeId, leaseDuration);
+            if (term.isPresent()) {
+                leaderValidUntilNanos = validUntil;
+                if (term.get() != leaderTerm) {
+                    scheduleFromHistory();
+                    leaderTerm = term.get();
+                    log.info("{} is the maintenance leader (term {})", nodeId, leaderTerm);
+                }
+            } else if (leaderTerm >= 0) {
+                stepDown("the lease was taken over");
+            }
+        } catch (DataAccessException e) {
+            // Stays leader until the validity runs out, in case the next renewal gets through
+            log.warn("Could not renew the scheduler lease: {}", e.getMessage());
+            if (leaderTerm >= 0 && !isLeader()) {
+                stepDown("the lease could not be renewed");
+            }
+        }
+    }
+
+    private void stepDown(String reason) {
+        log.warn("{} is no longer the maintenance leader: {}", nodeId, reason);
+        leaderTerm = -1;
+        active.values().forEach(runs -> runs.forEach(run -> run.cancelled = true));
+    }
+
+    private void scheduleFromHistory() {
+        Map<String, LocalDateTime> lastStarts = new HashMap<>();
+        for (Object[] row : runRepository.findLastStarts()) {
+            lastStarts.put((String) row[0], (LocalDateTime) row[1]);
+        }
+        nextStarts.clear();
+        for (MaintenanceTask task : tasks.values()) {
+            LocalDateTime last = lastStarts.get(task.getName());
+            nextStarts.put(task.getName(), last == null ? LocalDateTime.now() : last.plus(jittered(task.getInterval())));
+        }
+    }
+
+    private void renewSlots() {
+        for (List<Run> runs : active.values()) {
+            for (Run run : runs) {
+                long validUntil = leaseValidUntil(System.nanoTime());
+                try {
+                    if (leases.renew(run.leaseName, nodeId, leaseDuration)) {
+                        run.validUntilNanos = validUntil;
+                    } else {
+                        log.warn("Maintenance task {} lost its slot lease, cancelling the run", run.task.getName());
+                        run.cancelled = true;
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Could not renew the lease of maintenance task {}: {}", run.task.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean isDue(MaintenanceTask task, LocalDateTime now) {
+        LocalDateTime next = nextStarts.get(task.getName());
+        return (next == null || !now.isBefore(next))
+                && active.getOrDefault(task.getName(), List.of()).size() < task.getMaxConcurrency();
+    }
+
+    private void startIfQuiet(MaintenanceTask task, LocalDateTime now) {
+        if (task.isThrottled() && loadMonitor.isBusy()) {
+            if (deferred.add(task.getName())) {
+                Counter.builder("paperless.scheduler.deferred")
+                        .description("Due runs held back while the database was busy")
+                        .tag("task", task.getName())
+                        .register(meterRegistry)
+                        .increment();
+                log.info("Maintenance task {} is due but the database is busy, deferring", task.getName());
+            }
+            return;
+        }
+        deferred.remove(task.getName());
+
+        List<Run> runs = active.computeIfAbsent(task.getName(), name -> new CopyOnWriteArrayList<>());
+        Set<Integer> taken = runs.stream().map(run -> run.slot).collect(Collectors.toSet());
+        for (int slot = 0; slot < task.getMaxConcurrency(); slot++) {
+            if (taken.contains(slot)) {
+                continue;
+            }
+            String leaseName = "task:" + task.getName() + ":" + slot;
+            if (leases.tryAcquire(leaseName, nodeId, leaseDuration).isEmpty()) {
+                // A run started by a former leader is still going
+                continue;
+            }
+            runRepository.abandonRunning(task.getName(), slot, now);
+            MaintenanceRun record = new MaintenanceRun();
+            record.setTask(task.getName());
+            record.setSlot(slot);
+            record.setNode(nodeId);
+            record.setLeaderTerm(leaderTerm);
+            record.setStatus(MaintenanceRun.Status.RUNNING);
+            record.setStartedAt(now);
+            record = runRepository.save(record);
+
+            Run run = new Run(task, slot, leaseName, record.getId());
+            run.validUntilNanos = leaseValidUntil(System.nanoTime());
+            runs.add(run);
+            nextStarts.put(task.getName(), now.plus(jittered(task.getInterval())));
+            runner.execute(() -> execute(run));
+            return;
+        }
+        // Every slot is held elsewhere; look again after the next renewal rather than every tick
+        nextStarts.put(task.getName(), now.plus(renewInterval));
+    }
+
+    private void execute(Run run) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MaintenanceRun.Status status;
+        long processed = 0;
+        String error = null;
+        try {
+            processed = run.task.run(run);
+            status = run.isCancelled() ? MaintenanceRun.Status.CANCELLED : MaintenanceRun.Status.SUCCEEDED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = MaintenanceRun.Status.CANCELLED;
+        } catch (Exception e) {
+            status = MaintenanceRun.Status.FAILED;
+            error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+            error = error.length() > 1000 ? error.substring(0, 1000) : error;
+            log.error("Maintenance task {} failed", run.task.getName(), e);
+        }
+        long throttledMs = TimeUnit.NANOSECONDS.toMillis(run.throttledNanos);
+        try {
+            runRepository.finish(run.id, status, LocalDateTime.now(), processed, throttledMs, error);
+            leases.release(run.leaseName, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Could not record the end of maintenance task {}: {}", run.task.getName(), e.getMessage());
+        }
+        active.get(run.task.getName()).remove(run);
+        long millis = TimeUnit.NANOSECONDS.toMillis(sample.stop(Timer.builder("paperless.scheduler.runs")
+                .tag("task", run.task.getName())
+                .tag("outcome", status.name().toLowerCase())
+                .register(meterRegistry)));
+        log.info("Maintenance task {} {} in {} ms ({} processed, {} ms throttled)", run.task.getName(),
+                status.name().toLowerCase(), millis, processed, throttledMs);
+    }
+
+    // Until when a lease renewed at startedNanos may be relied on: a renew interval short of its expiry
+    private long leaseValidUntil(long startedNanos) {
+        return startedNanos + leaseDuration.minus(renewInterval).toNanos();
+    }
+
+    private Duration jittered(Duration interval) {
+        return Duration.ofMillis((long) (interval.toMillis() * ThreadLocalRandom.current().nextDouble(1 - jitter, 1 + jitter)));
+    }
+
+    private final class Run implements MaintenanceTask.Context {
+        private final MaintenanceTask task;
+        private final int slot;
+        private final String leaseName;
+        private final Long id;
+        private volatile boolean cancelled;
+        private volatile long validUntilNanos;
+        private long throttledNanos;
+
+        private Run(MaintenanceTask task, int slot, String leaseName, Long id) {
+            this.task = task;
+            this.slot = slot;
+            this.leaseName = leaseName;
+            this.id = id;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || !running || System.nanoTime() > validUntilNanos;
+        }
+
+        @Override
+        public boolean awaitQuiet() throws InterruptedException {
+            if (!task.isThrottled()) {
+                return !isCancelled();
+            }
+            long started = System.nanoTime();
+            while (!isCancelled() && loadMonitor.isBusy()) {
+                Thread.sleep(QUIET_POLL_MILLIS);
+            }
+            throttledNanos += System.nanoTime() - started;
+            return !isCancelled();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.college.paperless.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Periodic cluster-wide work run by the {@link MaintenanceScheduler}: on the leader node only, and at most
+ * {@link #getMaxConcurrency()} runs at a time across the cluster. Tasks that touch many rows should work in batches
+ * and call {@link Context#awaitQuiet()} before each one, so they pause while the database is busy and stop promptly
+ * when their run is cancelled.
+ */
+public interface MaintenanceTask {
+
+    // Unique, also the key of the run history and leases
+    String getName();
+
+    // Between the starts of consecutive runs, before jitter
+    Duration getInterval();
+
+    default int getMaxConcurrency() {
+        return 1;
+    }
+
+    // False for tasks that must run on time whatever the load; they are still never started twice
+    default boolean isThrottled() {
+        return true;
+    }
+
+    // Returns the number of rows or items handled, kept in the run history
+    long run(Context context) throws Exception;
+
+    interface Context {
+
+        // True once the run should stop: leadership or the slot lease was lost, or the node is shutting down
+        boolean isCancelled();
+
+        /**
+         * Blocks while the database is busy, for throttled tasks. Returns false when the run was cancelled and the
+         * task should return without doing more work.
+         */
+        boolean awaitQuiet() throws InterruptedException;
+    }
+}
@@ -0,0 +1,62 @@
+package com.college.paperless.scheduler;
+
+import com.college.paperless.entity.SchedulerLease;
+import com.college.paperless.repository.SchedulerLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Named leases in the scheduler_leases table. Acquiring and renewing are single conditional UPDATEs, so of the
+ * nodes racing for a lease exactly one gets it. Expiry compares the clocks of different nodes: the holder treats
+ * a lease as lost a renew interval before it expires (see {@link MaintenanceScheduler}), which has to cover the
+ * clock skew between nodes.
+ */
+@Component
+@RequiredArgsConstructor
+class SchedulerLeases {
+
+    private static final LocalDateTime NEVER_HELD = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final SchedulerLeaseRepository repository;
+
+    // The term of the new holding, or empty when someone else holds the lease
+    Optional<Long> tryAcquire(String name, String holder, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.acquire(name, holder, now, now.plus(duration)) == 0) {
+            if (repository.existsById(name)) {
+                return Optional.empty();
+            }
+            create(name);
+            if (repository.acquire(name, holder, now, now.plus(duration)) == 0) {
+                return Optional.empty();
+            }
+        }
+        return repository.findById(name).map(SchedulerLease::getTerm);
+    }
+
+    boolean renew(String name, String holder, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.renew(name, holder, now, now.plus(duration)) == 1;
+    }
+
+    void release(String name, String holder) {
+        repository.release(name, holder, LocalDateTime.now());
+    }
+
+    Optional<SchedulerLease> find(String name) {
+        return repository.findById(name);
+    }
+
+    private void create(String name) {
+        try {
+            repository.create(name, NEVER_HELD);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.college.paperless.security;
 
 import com.college.paperless.entity.User;
+import com.college.paperless.metrics.RequestTimings;
 import com.college.paperless.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,8 +22,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        User user = loadUserEntityByEmail(email);
 
         List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
@@ -36,8 +36,10 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     public User loadUserEntityByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.USER)) {
+            return userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        }
     }
 }
 
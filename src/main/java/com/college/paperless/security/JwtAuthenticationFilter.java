@@ -1,9 +1,12 @@
 package com.college.paperless.security;
 
+import com.college.paperless.metrics.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,13 +21,39 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public static final String USER_ID_ATTRIBUTE = "paperless.userId";
+    private static final String EVENTS_PATH = "/api/events";
+
     private final JwtTokenUtil jwtTokenUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        // Times token parsing, the user lookup and validation; the rest of the chain is excluded
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.JWT)) {
+            outcome = authenticate(request);
+        } catch (RuntimeException e) {
+            sample.stop(authTimer("error"));
+            throw e;
+        }
+        sample.stop(authTimer(outcome));
+
+        chain.doFilter(request, response);
+    }
+
+    private Timer authTimer(String outcome) {
+        return Timer.builder("paperless.auth.jwt")
+                .description("JWT authentication per request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private String authenticate(HttpServletRequest request) {
         final String requestTokenHeader = request.getHeader("Authorization");
 
         String username = null;
@@ -37,8 +66,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             } catch (Exception e) {
                 logger.error("Unable to get JWT Token: " + e.getMessage());
             }
+        } else if (EVENTS_PATH.equals(request.getServletPath()) && request.getParameter("token") != null) {
+            // EventSource cannot send an Authorization header, so the SSE stream takes the token as a query parameter
+            jwtToken = request.getParameter("token");
+            try {
+                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+            } catch (Exception e) {
+                logger.error("Unable to get JWT Token: " + e.getMessage());
+            }
         }
 
+        if (jwtToken == null) {
+            return "anonymous";
+        }
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
@@ -47,9 +87,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                request.setAttribute(USER_ID_ATTRIBUTE, jwtTokenUtil.getUserIdFromToken(jwtToken));
+                return "authenticated";
             }
         }
-        chain.doFilter(request, response);
+        return "rejected";
     }
 }
 
@@ -31,6 +31,11 @@ public class JwtTokenUtil {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
+    public Long getUserIdFromToken(String token) {
+        Number userId = getClaimFromToken(token, claims -> claims.get("userId", Number.class));
+        return userId != null ? userId.longValue() : null;
+    }
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
@@ -1,11 +1,17 @@
 package com.college.paperless.service;
 
+import com.college.paperless.dto.DocumentDTO;
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.event.DocumentTransitionEvent;
+import com.college.paperless.metrics.RequestTimings;
+import com.college.paperless.repository.DocumentArchiveRepository;
 import com.college.paperless.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,13 +20,17 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
 
     private final DocumentRepository documentRepository;
-    private final PdfService pdfService;
+    private final DocumentArchiveRepository archiveRepository;
+    private final PdfStampJob pdfStamps;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentSnapshotCache snapshots;
 
     @Transactional
     public Document uploadDocument(MultipartFile file, String description, User student) throws IOException {
@@ -33,606 +43,794 @@ public class DocumentService {
         document.setDescription(description);
         document.setStudent(student);
         document.setStatus(Document.DocumentStatus.DRAFT);
-        document.setData(file.getBytes());
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.BLOB)) {
+            document.setData(file.getBytes());
+        }
 
-        return documentRepository.save(document);
+        return publishTransition("uploadDocument", null, documentRepository.save(document), student, null);
     }
 
     @Transactional
     public Document forwardToMentor(Long documentId, User student, User mentor) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (!document.getStudent().getId().equals(student.getId())) {
             throw new RuntimeException("Unauthorized: You can only forward your own documents");
         }
 
+        requireStatus(document, Document.DocumentStatus.DRAFT);
+
+        User previousAssignee = document.getMentor();
         document.setMentor(mentor);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_MENTOR);
         document.setForwardedToMentorAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "student", student.getId());
+        return publishTransition("forwardToMentor", previousStatus, document, student, mentor, previousAssignee);
     }
 
     @Transactional
     public Document mentorApprove(Long documentId, User mentor) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (!document.getMentor().getId().equals(mentor.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_MENTOR);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, mentor, "MENTOR");
+        pdfStamps.enqueue(document, mentor, "MENTOR", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_MENTOR);
-        document.setMentorActionAt(LocalDateTime.now());
+        document.setMentorActionAt(approvedAt);
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "mentor", mentor.getId());
+        return publishTransition("mentorApprove", previousStatus, document, mentor, null);
     }
 
     @Transactional
     public Document mentorReject(Long documentId, String reason, User mentor) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (!document.getMentor().getId().equals(mentor.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_MENTOR);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_MENTOR);
         document.setRejectionReason(reason);
         document.setMentorActionAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "mentor", mentor.getId());
+        return publishTransition("mentorReject", previousStatus, document, mentor, null);
     }
 
     @Transactional
     public Document forwardToHod(Long documentId, User hod, User mentor) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (!document.getMentor().getId().equals(mentor.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_MENTOR, Document.DocumentStatus.APPROVED_BY_MENTOR);
+
+        User previousAssignee = document.getHod();
         document.setHod(hod);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_HOD);
         document.setForwardedToHodAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "mentor", mentor.getId());
+        return publishTransition("forwardToHod", previousStatus, document, mentor, hod, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getStudentDocuments(User student) {
         return documentRepository.findByStudentOrderByUploadedAtDesc(student);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getStudentDocuments(User student, Pageable pageable) {
         return documentRepository.findAllByStudentOrderByUploadedAtDesc(student, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getMentorPendingDocuments(User mentor) {
         return documentRepository.findByMentorAndStatusOrderByForwardedToMentorAtDesc(
                 mentor, Document.DocumentStatus.FORWARDED_TO_MENTOR);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getMentorPendingDocuments(User mentor, Pageable pageable) {
         return documentRepository.findAllByMentorAndStatusOrderByForwardedToMentorAtDesc(
                 mentor, Document.DocumentStatus.FORWARDED_TO_MENTOR, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getMentorAllDocuments(User mentor) {
         return documentRepository.findByMentorOrderByForwardedToMentorAtDesc(mentor);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getMentorAllDocuments(User mentor, Pageable pageable) {
         return documentRepository.findAllByMentorOrderByForwardedToMentorAtDesc(mentor, pageable);
     }
 
-    public Optional<Document> getDocumentById(Long id) {
-        return documentRepository.findById(id);
+    // Detail and download metadata without reading the file content; built on a miss, then kept in the cache
+    @Transactional(readOnly = true)
+    public Optional<DocumentDTO> getDocumentSnapshot(Long id) {
+        Optional<DocumentDTO> cached = snapshots.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<DocumentDTO> snapshot = documentRepository.findWithoutData(id).map(DocumentDTO::fromEntity);
+        snapshot.ifPresent(snapshots::put);
+        return snapshot;
+    }
+
+    // The content of the document as of the snapshot. If it has moved on since (another transition, or a stale
+    // snapshot), the snapshot is dropped and the caller gets the same conflict as a concurrent transition.
+    @Transactional(readOnly = true)
+    public byte[] getDocumentData(DocumentDTO snapshot) {
+        try {
+            return documentRepository.findDataIfUnchanged(snapshot.getId(), snapshot.getVersion())
+                    .orElseThrow(() -> new RuntimeException("Document content not found"));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            snapshots.evict(snapshot.getId());
+            throw e;
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getHodPendingDocuments(User hod) {
         return documentRepository.findByHodAndStatusOrderByForwardedToHodAtDesc(
                 hod, Document.DocumentStatus.FORWARDED_TO_HOD);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getHodPendingDocuments(User hod, Pageable pageable) {
         return documentRepository.findAllByHodAndStatusOrderByForwardedToHodAtDesc(
                 hod, Document.DocumentStatus.FORWARDED_TO_HOD, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByHodAndStatus(User hod, Document.DocumentStatus status) {
         return documentRepository.findByHodAndStatusOrderByForwardedToHodAtDesc(hod, status);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByHod(User hod) {
         return documentRepository.findByHodOrderByForwardedToHodAtDesc(hod);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByHod(User hod, Pageable pageable) {
         return documentRepository.findAllByHodOrderByForwardedToHodAtDesc(hod, pageable);
     }
 
     @Transactional
     public Document hodApprove(Long documentId, User hod) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getHod() == null || !document.getHod().getId().equals(hod.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_HOD);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, hod, "HOD");
+        pdfStamps.enqueue(document, hod, "HOD", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_HOD);
-        document.setHodActionAt(LocalDateTime.now());
+        document.setHodActionAt(approvedAt);
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "hod", hod.getId());
+        return publishTransition("hodApprove", previousStatus, document, hod, null);
     }
 
     @Transactional
     public Document hodReject(Long documentId, String reason, User hod) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getHod() == null || !document.getHod().getId().equals(hod.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_HOD);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_HOD);
         document.setRejectionReason(reason);
         document.setHodActionAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "hod", hod.getId());
+        return publishTransition("hodReject", previousStatus, document, hod, null);
     }
 
     @Transactional
     public Document forwardToDean(Long documentId, User dean, User hod) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (!document.getHod().getId().equals(hod.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_HOD, Document.DocumentStatus.APPROVED_BY_HOD);
+
+        User previousAssignee = document.getDean();
         document.setDean(dean);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_DEAN);
         document.setForwardedToDeanAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "hod", hod.getId());
+        return publishTransition("forwardToDean", previousStatus, document, hod, dean, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByDeanAndStatus(User dean, Document.DocumentStatus status) {
         return documentRepository.findByDeanAndStatusOrderByForwardedToDeanAtDesc(dean, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByDeanAndStatus(User dean, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByDeanAndStatusOrderByForwardedToDeanAtDesc(dean, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByDean(User dean) {
         return documentRepository.findByDeanOrderByForwardedToDeanAtDesc(dean);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByDean(User dean, Pageable pageable) {
         return documentRepository.findAllByDeanOrderByForwardedToDeanAtDesc(dean, pageable);
     }
 
     @Transactional
     public Document deanApprove(Long documentId, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, dean, "DEAN");
+        pdfStamps.enqueue(document, dean, "DEAN", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_DEAN);
-        document.setDeanActionAt(LocalDateTime.now());
+        document.setDeanActionAt(approvedAt);
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("deanApprove", previousStatus, document, dean, null);
     }
 
     @Transactional
     public Document deanReject(Long documentId, String reason, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_DEAN);
         document.setRejectionReason(reason);
         document.setDeanActionAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("deanReject", previousStatus, document, dean, null);
     }
 
     @Transactional
     public Document forwardToDeanAcademics(Long documentId, User deanAcademics, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN, Document.DocumentStatus.APPROVED_BY_DEAN);
+
+        User previousAssignee = document.getDeanAcademics();
         document.setDeanAcademics(deanAcademics);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS);
         document.setForwardedToDeanAcademicsAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("forwardToDeanAcademics", previousStatus, document, dean, deanAcademics, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByDeanAcademicsAndStatus(User deanAcademics, Document.DocumentStatus status) {
         return documentRepository.findByDeanAcademicsAndStatusOrderByForwardedToDeanAcademicsAtDesc(deanAcademics, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByDeanAcademicsAndStatus(User deanAcademics, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByDeanAcademicsAndStatusOrderByForwardedToDeanAcademicsAtDesc(deanAcademics, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByDeanAcademics(User deanAcademics) {
         return documentRepository.findByDeanAcademicsOrderByForwardedToDeanAcademicsAtDesc(deanAcademics);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByDeanAcademics(User deanAcademics, Pageable pageable) {
         return documentRepository.findAllByDeanAcademicsOrderByForwardedToDeanAcademicsAtDesc(deanAcademics, pageable);
     }
 
     @Transactional
     public Document deanAcademicsApprove(Long documentId, User deanAcademics) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDeanAcademics() == null || !document.getDeanAcademics().getId().equals(deanAcademics.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, deanAcademics, "DEAN ACADEMICS");
+        pdfStamps.enqueue(document, deanAcademics, "DEAN ACADEMICS", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_DEAN_ACADEMICS);
-        document.setDeanAcademicsActionAt(LocalDateTime.now());
+        document.setDeanAcademicsActionAt(approvedAt);
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "deanAcademics", deanAcademics.getId());
+        return publishTransition("deanAcademicsApprove", previousStatus, document, deanAcademics, null);
     }
 
     @Transactional
     public Document deanAcademicsReject(Long documentId, String reason, User deanAcademics) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDeanAcademics() == null || !document.getDeanAcademics().getId().equals(deanAcademics.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_DEAN_ACADEMICS);
         document.setRejectionReason(reason);
         document.setDeanAcademicsActionAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "deanAcademics", deanAcademics.getId());
+        return publishTransition("deanAcademicsReject", previousStatus, document, deanAcademics, null);
     }
 
     @Transactional
     public Document forwardToRegistrar(Long documentId, User registrar, User deanAcademics) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDeanAcademics() == null || !document.getDeanAcademics().getId().equals(deanAcademics.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS, Document.DocumentStatus.APPROVED_BY_DEAN_ACADEMICS);
+
+        User previousAssignee = document.getRegistrar();
         document.setRegistrar(registrar);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_REGISTRAR);
         document.setForwardedToRegistrarAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "deanAcademics", deanAcademics.getId());
+        return publishTransition("forwardToRegistrar", previousStatus, document, deanAcademics, registrar, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByRegistrarAndStatus(User registrar, Document.DocumentStatus status) {
         return documentRepository.findByRegistrarAndStatusOrderByForwardedToRegistrarAtDesc(registrar, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByRegistrarAndStatus(User registrar, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByRegistrarAndStatusOrderByForwardedToRegistrarAtDesc(registrar, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByRegistrar(User registrar) {
         return documentRepository.findByRegistrarOrderByForwardedToRegistrarAtDesc(registrar);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByRegistrar(User registrar, Pageable pageable) {
         return documentRepository.findAllByRegistrarOrderByForwardedToRegistrarAtDesc(registrar, pageable);
     }
 
     @Transactional
     public Document registrarApprove(Long documentId, User registrar) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getRegistrar() == null || !document.getRegistrar().getId().equals(registrar.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_REGISTRAR);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, registrar, "REGISTRAR");
+        pdfStamps.enqueue(document, registrar, "REGISTRAR", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_REGISTRAR);
-        document.setRegistrarActionAt(LocalDateTime.now());
+        document.setRegistrarActionAt(approvedAt);
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "registrar", registrar.getId());
+        return publishTransition("registrarApprove", previousStatus, document, registrar, null);
     }
 
     @Transactional
     public Document registrarReject(Long documentId, String reason, User registrar) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getRegistrar() == null || !document.getRegistrar().getId().equals(registrar.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_REGISTRAR);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_REGISTRAR);
         document.setRejectionReason(reason);
         document.setRegistrarActionAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "registrar", registrar.getId());
+        return publishTransition("registrarReject", previousStatus, document, registrar, null);
     }
 
     @Transactional
     public Document forwardToCoe(Long documentId, User coe, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN, Document.DocumentStatus.APPROVED_BY_DEAN);
+
+        User previousAssignee = document.getCoe();
         document.setCoe(coe);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_COE);
         document.setForwardedToCoeAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("forwardToCoe", previousStatus, document, dean, coe, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByCoeAndStatus(User coe, Document.DocumentStatus status) {
         return documentRepository.findByCoeAndStatusOrderByForwardedToCoeAtDesc(coe, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByCoeAndStatus(User coe, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByCoeAndStatusOrderByForwardedToCoeAtDesc(coe, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByCoe(User coe) {
         return documentRepository.findByCoeOrderByForwardedToCoeAtDesc(coe);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByCoe(User coe, Pageable pageable) {
         return documentRepository.findAllByCoeOrderByForwardedToCoeAtDesc(coe, pageable);
     }
 
     @Transactional
     public Document coeApprove(Long documentId, User coe) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getCoe() == null || !document.getCoe().getId().equals(coe.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_COE);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, coe, "COE");
+        pdfStamps.enqueue(document, coe, "COE", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_COE);
         // document.setCoeActionAt(LocalDateTime.now()); // Add timestamp if needed
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "coe", coe.getId());
+        return publishTransition("coeApprove", previousStatus, document, coe, null);
     }
 
     @Transactional
     public Document coeReject(Long documentId, String reason, User coe) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getCoe() == null || !document.getCoe().getId().equals(coe.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_COE);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_COE);
         document.setRejectionReason(reason);
         // document.setCoeActionAt(LocalDateTime.now());
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "coe", coe.getId());
+        return publishTransition("coeReject", previousStatus, document, coe, null);
     }
 
     @Transactional
     public Document forwardToRnd(Long documentId, User rnd, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN, Document.DocumentStatus.APPROVED_BY_DEAN);
+
+        User previousAssignee = document.getRnd();
         document.setRnd(rnd);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_RND);
         document.setForwardedToRndAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("forwardToRnd", previousStatus, document, dean, rnd, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByRndAndStatus(User rnd, Document.DocumentStatus status) {
         return documentRepository.findByRndAndStatusOrderByForwardedToRndAtDesc(rnd, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByRndAndStatus(User rnd, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByRndAndStatusOrderByForwardedToRndAtDesc(rnd, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByRnd(User rnd) {
         return documentRepository.findByRndOrderByForwardedToRndAtDesc(rnd);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByRnd(User rnd, Pageable pageable) {
         return documentRepository.findAllByRndOrderByForwardedToRndAtDesc(rnd, pageable);
     }
 
     @Transactional
     public Document rndApprove(Long documentId, User rnd) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getRnd() == null || !document.getRnd().getId().equals(rnd.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_RND);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, rnd, "R&D");
+        pdfStamps.enqueue(document, rnd, "R&D", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_RND);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "rnd", rnd.getId());
+        return publishTransition("rndApprove", previousStatus, document, rnd, null);
     }
 
     @Transactional
     public Document rndReject(Long documentId, String reason, User rnd) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getRnd() == null || !document.getRnd().getId().equals(rnd.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_RND);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_RND);
         document.setRejectionReason(reason);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "rnd", rnd.getId());
+        return publishTransition("rndReject", previousStatus, document, rnd, null);
     }
 
     @Transactional
     public Document forwardToIndustryRelations(Long documentId, User industryRelations, User dean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(dean.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN, Document.DocumentStatus.APPROVED_BY_DEAN);
+
+        User previousAssignee = document.getIndustryRelations();
         document.setIndustryRelations(industryRelations);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS);
         document.setForwardedToIndustryRelationsAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", dean.getId());
+        return publishTransition("forwardToIndustryRelations", previousStatus, document, dean, industryRelations, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByIndustryRelationsAndStatus(User industryRelations, Document.DocumentStatus status) {
         return documentRepository.findByIndustryRelationsAndStatusOrderByForwardedToIndustryRelationsAtDesc(industryRelations, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByIndustryRelationsAndStatus(User industryRelations, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByIndustryRelationsAndStatusOrderByForwardedToIndustryRelationsAtDesc(industryRelations, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByIndustryRelations(User industryRelations) {
         return documentRepository.findByIndustryRelationsOrderByForwardedToIndustryRelationsAtDesc(industryRelations);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByIndustryRelations(User industryRelations, Pageable pageable) {
         return documentRepository.findAllByIndustryRelationsOrderByForwardedToIndustryRelationsAtDesc(industryRelations, pageable);
     }
 
     @Transactional
     public Document industryRelationsApprove(Long documentId, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, industryRelations, "INDUSTRY RELATIONS");
+        pdfStamps.enqueue(document, industryRelations, "INDUSTRY RELATIONS", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_INDUSTRY_RELATIONS);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("industryRelationsApprove", previousStatus, document, industryRelations, null);
     }
 
     @Transactional
     public Document industryRelationsReject(Long documentId, String reason, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_INDUSTRY_RELATIONS);
         document.setRejectionReason(reason);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("industryRelationsReject", previousStatus, document, industryRelations, null);
     }
 
     @Transactional
     public Document forwardFromIndustryRelationsToDean(Long documentId, User dean, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS, Document.DocumentStatus.APPROVED_BY_INDUSTRY_RELATIONS);
+
+        User previousAssignee = document.getDean();
         document.setDean(dean);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_DEAN);
         document.setForwardedToDeanAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("forwardFromIndustryRelationsToDean", previousStatus, document, industryRelations, dean, previousAssignee);
     }
 
     @Transactional
     public Document forwardFromIndustryRelationsToDeanAcademics(Long documentId, User deanAcademics, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS, Document.DocumentStatus.APPROVED_BY_INDUSTRY_RELATIONS);
+
+        User previousAssignee = document.getDeanAcademics();
         document.setDeanAcademics(deanAcademics);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS);
         document.setForwardedToDeanAcademicsAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("forwardFromIndustryRelationsToDeanAcademics", previousStatus, document, industryRelations, deanAcademics, previousAssignee);
     }
 
     @Transactional
     public Document forwardFromIndustryRelationsToRnd(Long documentId, User rnd, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS, Document.DocumentStatus.APPROVED_BY_INDUSTRY_RELATIONS);
+
+        User previousAssignee = document.getRnd();
         document.setRnd(rnd);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_RND);
         document.setForwardedToRndAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("forwardFromIndustryRelationsToRnd", previousStatus, document, industryRelations, rnd, previousAssignee);
     }
 
     @Transactional
     public Document forwardFromIndustryRelationsToHod(Long documentId, User hod, User industryRelations) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getIndustryRelations() == null || !document.getIndustryRelations().getId().equals(industryRelations.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS, Document.DocumentStatus.APPROVED_BY_INDUSTRY_RELATIONS);
+
         // If HOD is already assigned (e.g. from student -> mentor -> hod), use that HOD?
         // Or should we assign a new HOD?
         // Usually HOD is determined by the student's department.
@@ -641,17 +839,20 @@ public class DocumentService {
         // But wait, HOD is usually specific to the student.
         // If the document has an HOD already, we should probably use that one, or update it.
 
+        User previousAssignee = document.getHod();
         document.setHod(hod);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_HOD);
         document.setForwardedToHodAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "industryRelations", industryRelations.getId());
+        return publishTransition("forwardFromIndustryRelationsToHod", previousStatus, document, industryRelations, hod, previousAssignee);
     }
 
     @Transactional
     public Document forwardToExamCell(Long documentId, User examCell, User deanAcademics) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         // Check if the user is either CoE or Dean Academics
         boolean isCoe = document.getCoe() != null && document.getCoe().getId().equals(deanAcademics.getId());
@@ -660,75 +861,106 @@ public class DocumentService {
         if (!isCoe && !isDeanAcademics) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
+        // Whoever holds the document at its current stage forwards it, should one user hold both roles
+        boolean fromCoe = isCoe && (previousStatus == Document.DocumentStatus.FORWARDED_TO_COE
+                || previousStatus == Document.DocumentStatus.APPROVED_BY_COE);
+        if (fromCoe) {
+            requireStatus(document, Document.DocumentStatus.FORWARDED_TO_COE, Document.DocumentStatus.APPROVED_BY_COE);
+        } else {
+            requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN_ACADEMICS,
+                    Document.DocumentStatus.APPROVED_BY_DEAN_ACADEMICS);
+        }
 
+        User previousAssignee = document.getExamCell();
         document.setExamCell(examCell);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_EXAM_CELL);
         document.setForwardedToExamCellAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, fromCoe ? "coe" : "deanAcademics", deanAcademics.getId());
+        return publishTransition("forwardToExamCell", previousStatus, document, deanAcademics, examCell, previousAssignee);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByExamCellAndStatus(User examCell, Document.DocumentStatus status) {
         return documentRepository.findByExamCellAndStatusOrderByForwardedToExamCellAtDesc(examCell, status);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByExamCellAndStatus(User examCell, Document.DocumentStatus status, Pageable pageable) {
         return documentRepository.findAllByExamCellAndStatusOrderByForwardedToExamCellAtDesc(examCell, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByExamCell(User examCell) {
         return documentRepository.findByExamCellOrderByForwardedToExamCellAtDesc(examCell);
     }
 
+    @Transactional(readOnly = true)
     public Page<Document> getDocumentsByExamCell(User examCell, Pageable pageable) {
         return documentRepository.findAllByExamCellOrderByForwardedToExamCellAtDesc(examCell, pageable);
     }
 
     @Transactional
     public Document examCellApprove(Long documentId, User examCell) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getExamCell() == null || !document.getExamCell().getId().equals(examCell.getId())) {
             throw new RuntimeException("You are not authorized to approve this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_EXAM_CELL);
+
+        LocalDateTime approvedAt = LocalDateTime.now();
         // Add digital signature
-        pdfService.addDigitalSignToPdf(document, examCell, "EXAM CELL");
+        pdfStamps.enqueue(document, examCell, "EXAM CELL", approvedAt);
 
         document.setStatus(Document.DocumentStatus.APPROVED_BY_EXAM_CELL);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "examCell", examCell.getId());
+        return publishTransition("examCellApprove", previousStatus, document, examCell, null);
     }
 
     @Transactional
     public Document examCellReject(Long documentId, String reason, User examCell) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getExamCell() == null || !document.getExamCell().getId().equals(examCell.getId())) {
             throw new RuntimeException("You are not authorized to reject this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_EXAM_CELL);
+
         document.setStatus(Document.DocumentStatus.REJECTED_BY_EXAM_CELL);
         document.setRejectionReason(reason);
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "examCell", examCell.getId());
+        return publishTransition("examCellReject", previousStatus, document, examCell, null);
     }
 
-    public void deleteDocument(Long documentId) {
+    @Transactional
+    public void deleteDocument(Long documentId, User admin) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
         
-        // Delete the document record from database
+        // Delete the document record from database, with its archived content if it was archived
+        archiveRepository.deleteByDocumentId(documentId);
         documentRepository.delete(document);
+        snapshots.evictAfterCommit(documentId);
+        publishEvent("deleteDocument", previousStatus, document, admin, null);
         
         // Note: File is kept in storage (as per requirement "uploaded files should not delete never")
         // If you want to delete the physical file too, uncomment below:
         // fileStorageService.deleteFile(document.getFilePath());
     }
 
+    @Transactional
     public void deleteDraftDocument(Long documentId, User student) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
         if (!document.getStudent().getId().equals(student.getId())) {
             throw new RuntimeException("Unauthorized: You can only delete your own documents");
         }
@@ -736,21 +968,79 @@ public class DocumentService {
             throw new RuntimeException("Cannot delete: Document has already been forwarded to mentor");
         }
         documentRepository.delete(document);
+        snapshots.evictAfterCommit(documentId);
+        publishEvent("deleteDraftDocument", previousStatus, document, student, null);
     }
 
     @Transactional
     public Document forwardToDeanFromDean(Long documentId, User targetDean, User currentDean) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findForTransition(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
+        Document.DocumentStatus previousStatus = document.getStatus();
 
         if (document.getDean() == null || !document.getDean().getId().equals(currentDean.getId())) {
             throw new RuntimeException("You are not authorized to forward this document");
         }
 
+        requireStatus(document, Document.DocumentStatus.FORWARDED_TO_DEAN, Document.DocumentStatus.APPROVED_BY_DEAN);
+
+        User previousAssignee = document.getDean();
         document.setDean(targetDean);
         document.setStatus(Document.DocumentStatus.FORWARDED_TO_DEAN);
         document.setForwardedToDeanAt(LocalDateTime.now());
 
-        return documentRepository.save(document);
+        document = documentRepository.updateIfUnchanged(document, previousStatus, "dean", currentDean.getId());
+        return publishTransition("forwardToDeanFromDean", previousStatus, document, currentDean, targetDean, previousAssignee);
+    }
+
+    // A transition runs only from the statuses that lead to it; the update is then fenced on the status it was
+    // loaded with, so of two identical requests the second fails whether or not they overlap
+    private static void requireStatus(Document document, Document.DocumentStatus... legalSources) {
+        for (Document.DocumentStatus status : legalSources) {
+            if (document.getStatus() == status) {
+                return;
+            }
+        }
+        throw new ObjectOptimisticLockingFailureException(Document.class, document.getId());
+    }
+
+    private Document publishTransition(String transition, Document.DocumentStatus fromStatus, Document document,
+                                       User actor, User assignee) {
+        return publishTransition(transition, fromStatus, document, actor, assignee, null);
+    }
+
+    private Document publishTransition(String transition, Document.DocumentStatus fromStatus, Document document,
+                                       User actor, User assignee, User previousAssignee) {
+        snapshots.putAfterCommit(DocumentDTO.fromEntity(document));
+        return publishEvent(transition, fromStatus, document, actor, assignee, previousAssignee);
+    }
+
+    private Document publishEvent(String transition, Document.DocumentStatus fromStatus, Document document,
+                                  User actor, User assignee) {
+        return publishEvent(transition, fromStatus, document, actor, assignee, null);
+    }
+
+    // Listeners write the outbox row before commit and hand the event to the bus after commit,
+    // so consumers never see a transition that was rolled back.
+    // The actor and an approver the document was taken from are no longer attached to it, but their inboxes changed too
+    private Document publishEvent(String transition, Document.DocumentStatus fromStatus, Document document,
+                                  User actor, User assignee, User previousAssignee) {
+        Set<Long> participantIds = document.participantIds();
+        participantIds.add(actor.getId());
+        if (previousAssignee != null) {
+            participantIds.add(previousAssignee.getId());
+        }
+        eventPublisher.publishEvent(new DocumentTransitionEvent(
+                null,
+                document.getId(),
+                transition,
+                fromStatus,
+                document.getStatus(),
+                actor.getId(),
+                assignee != null ? assignee.getId() : null,
+                participantIds,
+                document.getStatus().name().startsWith("REJECTED_") ? document.getRejectionReason() : null,
+                LocalDateTime.now()));
+        return document;
     }
 }
@@ -0,0 +1,101 @@
+package com.college.paperless.service;
+
+import com.college.paperless.cluster.CacheInvalidation;
+import com.college.paperless.cluster.InvalidationBus;
+import com.college.paperless.cluster.InvalidationHandler;
+import com.college.paperless.dto.DocumentDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded cache of DocumentDTO snapshots, one per document, each carrying the document version it was built from.
+ * DocumentService puts the new snapshot after every committed transition, so on this node an entry is never older
+ * than the last transition it ran; a put never replaces a newer version with an older one. Download authorization
+ * is answered from the snapshot, and the blob read is checked against its version (see DocumentService).
+ * Other nodes are told through the {@link InvalidationBus} and drop their copy.
+ *
+ * Snapshots are shared between requests and must not be modified.
+ */
+@Component
+public class DocumentSnapshotCache implements InvalidationHandler {
+
+    private final Cache<Long, DocumentDTO> snapshots;
+    private final InvalidationBus invalidationBus;
+
+    public DocumentSnapshotCache(@Value("${paperless.cache.documents.max-size:20000}") long maxSize,
+                                 MeterRegistry meterRegistry,
+                                 InvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "document-snapshots");
+    }
+
+    public Optional<DocumentDTO> get(Long documentId) {
+        return Optional.ofNullable(snapshots.getIfPresent(documentId));
+    }
+
+    public void put(DocumentDTO snapshot) {
+        snapshots.asMap().merge(snapshot.getId(), snapshot,
+                (current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+    }
+
+    public void evict(Long documentId) {
+        snapshots.invalidate(documentId);
+    }
+
+    // Rolled back transitions leave the cache untouched
+    public void putAfterCommit(DocumentDTO snapshot) {
+        afterCommit(() -> {
+            put(snapshot);
+            invalidationBus.publish(CacheInvalidation.Region.DOCUMENT, List.of(snapshot.getId()));
+        });
+    }
+
+    public void evictAfterCommit(Long documentId) {
+        afterCommit(() -> {
+            evict(documentId);
+            invalidationBus.publish(CacheInvalidation.Region.DOCUMENT, List.of(documentId));
+        });
+    }
+
+    @Override
+    public CacheInvalidation.Region getRegion() {
+        return CacheInvalidation.Region.DOCUMENT;
+    }
+
+    @Override
+    public void invalidate(Collection<Long> documentIds) {
+        snapshots.invalidateAll(documentIds);
+    }
+
+    @Override
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
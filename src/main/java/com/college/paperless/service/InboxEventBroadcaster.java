@@ -0,0 +1,162 @@
+package com.college.paperless.service;
+
+import com.college.paperless.config.BackgroundThreads;
+import com.college.paperless.event.DocumentEventConsumer;
+import com.college.paperless.event.DocumentTransitionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed transitions from the event bus out to the SSE streams opened on /api/events.
+ *
+ * Idle connections cost nothing but an SseEmitter (the servlet request is async, no thread is parked on it).
+ * Handling an event only enqueues into a small per-connection queue; a shared pool drains the queues, so a slow
+ * client never holds up the bus. A client that falls too far behind is disconnected and is expected to reconnect
+ * and reload its inbox.
+ */
+@Slf4j
+@Service
+public class InboxEventBroadcaster implements DocumentEventConsumer {
+
+    public static final String FORWARDED = "forwarded";
+    public static final String STATUS_CHANGED = "status";
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final int SENDER_THREADS = 4;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender;
+
+    public InboxEventBroadcaster(BackgroundThreads backgroundThreads) {
+        this.sender = Executors.newFixedThreadPool(SENDER_THREADS, backgroundThreads.factory("sse-sender"));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Flush headers right away so proxies and EventSource see an open stream
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @Override
+    public String getName() {
+        return "sse";
+    }
+
+    @Override
+    public void onEvent(DocumentTransitionEvent event) {
+        Map<String, Object> payload = Map.of(
+                "documentId", event.getDocumentId(),
+                "status", event.getToStatus().name());
+
+        for (Long userId : event.getParticipantIds()) {
+            Set<Subscriber> targets = subscribers.get(userId);
+            if (targets == null) {
+                continue;
+            }
+            String name = userId.equals(event.getAssigneeId()) ? FORWARDED : STATUS_CHANGED;
+            for (Subscriber subscriber : targets) {
+                subscriber.offer(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 25_000)
+    public void sendHeartbeats() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(targets -> targets.forEach(s -> s.emitter.complete()));
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> targets = subscribers.get(subscriber.userId);
+        if (targets != null && targets.remove(subscriber)) {
+            connectionCount.decrementAndGet();
+            if (targets.isEmpty()) {
+                subscribers.remove(subscriber.userId, targets);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // Client is not keeping up; drop it rather than buffer without bound
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber for user {}: {}", userId, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have slipped in between the last poll and releasing the flag
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+}
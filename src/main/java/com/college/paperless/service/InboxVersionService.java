@@ -0,0 +1,97 @@
+package com.college.paperless.service;
+
+import com.college.paperless.cluster.CacheInvalidation;
+import com.college.paperless.cluster.InvalidationBus;
+import com.college.paperless.cluster.InvalidationHandler;
+import com.college.paperless.event.DocumentTransitionEvent;
+import com.college.paperless.repository.InboxVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user inbox version, bumped by every transition that touches a document the user is attached to.
+ * The list endpoints use it as a weak ETag so an unchanged inbox is answered with 304 before any list query runs.
+ *
+ * The database row is the source of truth and is bumped inside the transition's transaction; the in-memory map
+ * only ever moves forward to values that have been committed, so a reload racing a commit cannot roll it back.
+ * Versions bumped on another node are dropped here through the {@link InvalidationBus} and reloaded on next use.
+ */
+@Service
+@RequiredArgsConstructor
+public class InboxVersionService implements InvalidationHandler {
+
+    private final InboxVersionRepository inboxVersionRepository;
+    private final InvalidationBus invalidationBus;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransition(DocumentTransitionEvent event) {
+        Set<Long> participants = event.getParticipantIds();
+        if (participants.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> bumped = new HashMap<>();
+        inboxVersionRepository.incrementAll(participants);
+        for (Object[] row : inboxVersionRepository.findVersionsByUserIds(participants)) {
+            bumped.put((Long) row[0], (Long) row[1]);
+        }
+        // A user's first transition has no row to update yet
+        for (Long userId : participants) {
+            if (!bumped.containsKey(userId)) {
+                inboxVersionRepository.increment(userId);
+                inboxVersionRepository.findVersionByUserId(userId).ifPresent(v -> bumped.put(userId, v));
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bumped.forEach((userId, version) -> versions.merge(userId, version, Math::max));
+                invalidationBus.publish(CacheInvalidation.Region.INBOX, bumped.keySet());
+            }
+        });
+    }
+
+    @Override
+    public CacheInvalidation.Region getRegion() {
+        return CacheInvalidation.Region.INBOX;
+    }
+
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        userIds.forEach(versions::remove);
+    }
+
+    @Override
+    public void invalidateAll() {
+        versions.clear();
+    }
+
+    public long currentVersion(Long userId) {
+        Long version = versions.get(userId);
+        if (version != null) {
+            return version;
+        }
+        long stored = inboxVersionRepository.findVersionByUserId(userId).orElse(0L);
+        return versions.merge(userId, stored, Math::max);
+    }
+
+    // Sets the ETag and returns true when the client already holds the current inbox of this user
+    public boolean checkNotModified(ServletWebRequest webRequest, Long userId) {
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return webRequest.checkNotModified("W/\"" + userId + "-" + currentVersion(userId) + "\"");
+    }
+}
@@ -2,7 +2,15 @@ package com.college.paperless.service;
 
 import com.college.paperless.entity.Document;
 import com.college.paperless.entity.User;
+import com.college.paperless.entity.UserSignature;
+import com.college.paperless.jfr.PdfStampEvent;
+import com.college.paperless.metrics.RequestTimings;
+import com.college.paperless.repository.UserSignatureRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -17,11 +25,48 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PdfService {
 
-    public void addDigitalSignToPdf(Document document, User approver, String role) {
+    private final MeterRegistry meterRegistry;
+    private final UserSignatureRepository userSignatureRepository;
+
+    // False when the file is not a PDF and was left untouched; signedAt is the approval time printed in the stamp
+    public boolean addDigitalSignToPdf(Document document, User approver, String role, LocalDateTime signedAt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PdfStampEvent event = new PdfStampEvent();
+        event.begin();
+        String outcome = "error";
+        try (RequestTimings.Span span = RequestTimings.time(RequestTimings.Phase.PDF)) {
+            outcome = stamp(document, approver, role, signedAt, event) ? "signed" : "skipped";
+        } finally {
+            sample.stop(Timer.builder("paperless.pdf.sign")
+                    .description("PDFBox load, stamp and save of an approval signature")
+                    .tag("role", role)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            if ("signed".equals(outcome)) {
+                DistributionSummary.builder("paperless.pdf.sign.bytes")
+                        .baseUnit("bytes")
+                        .tag("role", role)
+                        .register(meterRegistry)
+                        .record(document.getData().length);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.documentId = document.getId() != null ? document.getId() : 0;
+                event.role = role;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+        return "signed".equals(outcome);
+    }
+
+    // Returns false when the file is not a PDF and was left untouched; sizes and page count go to the JFR event
+    private boolean stamp(Document document, User approver, String role, LocalDateTime signedAt, PdfStampEvent event) {
         try {
             if (document.getData() == null) {
                 throw new RuntimeException("Document data is empty");
@@ -29,11 +74,13 @@ public class PdfService {
 
             // Only process PDF files
             if (!"application/pdf".equalsIgnoreCase(document.getFileType()) && !document.getFileName().toLowerCase().endsWith(".pdf")) {
-                return;
+                return false;
             }
 
+            event.inputBytes = document.getData().length;
             try (PDDocument pdDocument = PDDocument.load(new ByteArrayInputStream(document.getData()));
                  ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+                event.pages = pdDocument.getNumberOfPages();
 
                 // Get the first page
                 PDPage page = pdDocument.getPage(0);
@@ -49,9 +96,10 @@ public class PdfService {
                     float y = 50; // Bottom margin
 
                     // Check if user has a signature image
-                    byte[] signatureData = approver.getSignatureData();
-                    if ("HOD".equalsIgnoreCase(role) && approver.getHodSignatureData() != null && approver.getHodSignatureData().length > 0) {
-                        signatureData = approver.getHodSignatureData();
+                    UserSignature signature = userSignatureRepository.findById(approver.getId()).orElseGet(UserSignature::new);
+                    byte[] signatureData = signature.getSignatureData();
+                    if ("HOD".equalsIgnoreCase(role) && signature.getHodSignatureData() != null && signature.getHodSignatureData().length > 0) {
+                        signatureData = signature.getHodSignatureData();
                     }
 
                     if (signatureData != null && signatureData.length > 0) {
@@ -69,23 +117,23 @@ public class PdfService {
                             contentStream.newLineAtOffset(x, y - 10);
                             contentStream.showText("Digitally Signed by " + approver.getName() + " (" + role + ")");
                             contentStream.newLineAtOffset(0, -10);
-                            contentStream.showText("Date: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
+                            contentStream.showText("Date: " + signedAt.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
                             contentStream.endText();
                         } catch (Exception e) {
-                            System.out.println("Error adding signature image: " + e.getMessage());
-                            e.printStackTrace();
+                            log.warn("Error adding signature image for user {}", approver.getId(), e);
                             // Fallback to text box on error
-                            drawTextBox(contentStream, x, y, approver.getName(), role);
+                            drawTextBox(contentStream, x, y, approver.getName(), role, signedAt);
                         }
                     } else {
-                        System.out.println("No signature data found for user: " + approver.getName());
+                        log.debug("No signature data found for user {}", approver.getId());
                         // Draw text box
-                        drawTextBox(contentStream, x, y, approver.getName(), role);
+                        drawTextBox(contentStream, x, y, approver.getName(), role, signedAt);
                     }
                 }
 
                 // Save to output stream
                 pdDocument.save(outputStream);
+                event.outputBytes = outputStream.size();
 
                 // Update document data
                 document.setData(outputStream.toByteArray());
@@ -94,9 +142,11 @@ public class PdfService {
         } catch (IOException e) {
             throw new RuntimeException("Failed to sign document", e);
         }
+        return true;
     }
 
-    private void drawTextBox(PDPageContentStream contentStream, float x, float y, String name, String role) throws IOException {
+    private void drawTextBox(PDPageContentStream contentStream, float x, float y, String name, String role,
+                             LocalDateTime signedAt) throws IOException {
         // Draw a box
         contentStream.setNonStrokingColor(Color.WHITE);
         contentStream.addRect(x - 10, y - 20, 240, 60);
@@ -120,7 +170,7 @@ public class PdfService {
         contentStream.showText("Name: " + name);
 
         contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Date: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
+        contentStream.showText("Date: " + signedAt.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
 
         contentStream.endText();
     }
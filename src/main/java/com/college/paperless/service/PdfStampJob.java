@@ -0,0 +1,74 @@
+package com.college.paperless.service;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.Job;
+import com.college.paperless.entity.User;
+import com.college.paperless.job.JobHandler;
+import com.college.paperless.job.JobQueue;
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stamps an approver's signature onto the document, enqueued by the approval in the same transaction.
+ *
+ * Only the file content is written back, fenced on its data version: transitions committed meanwhile do not
+ * conflict, while a stamp that lost the race against another stamp fails and its retry stamps the newer content.
+ * The stamped content commits together with the job's completion (see {@link JobQueue#runOnce}), so a run
+ * repeated after a crash or an expired lease never adds a second signature box.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PdfStampJob implements JobHandler {
+
+    public static final String TYPE = "pdf.stamp";
+    // Ahead of background maintenance: the approver is waiting to see the signature
+    public static final int PRIORITY = 10;
+
+    // approvedAt is printed in the stamp, however late the job runs; null only in jobs enqueued before it was added
+    public record Request(Long documentId, Long approverId, String role, LocalDateTime approvedAt) {
+    }
+
+    private final JobQueue jobQueue;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final PdfService pdfService;
+    private final DocumentSnapshotCache snapshots;
+
+    public void enqueue(Document document, User approver, String role, LocalDateTime approvedAt) {
+        jobQueue.enqueue(TYPE, new Request(document.getId(), approver.getId(), role, approvedAt), PRIORITY);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    @Transactional
+    public void handle(Job job) throws Exception {
+        Request request = jobQueue.payload(job, Request.class);
+        // Not managed, so the stamped content is only written by replaceDataIfUnchanged
+        Document document = documentRepository.findWithoutData(request.documentId()).orElse(null);
+        if (document != null) {
+            document.setData(documentRepository.findDataIfUnchanged(document.getId(), document.getVersion()).orElse(null));
+        }
+        if (document == null) {
+            log.debug("Document {} was deleted before its {} stamp", request.documentId(), request.role());
+            return;
+        }
+        User approver = userRepository.findById(request.approverId())
+                .orElseThrow(() -> new IllegalStateException("Approver " + request.approverId() + " not found"));
+        LocalDateTime approvedAt = request.approvedAt() != null ? request.approvedAt() : job.getCreatedAt();
+        if (pdfService.addDigitalSignToPdf(document, approver, request.role(), approvedAt)) {
+            documentRepository.replaceDataIfUnchanged(document);
+            snapshots.evictAfterCommit(document.getId());
+        }
+    }
+}
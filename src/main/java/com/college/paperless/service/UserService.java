@@ -1,7 +1,10 @@
 package com.college.paperless.service;
 
+import com.college.paperless.audit.AuditLog;
 import com.college.paperless.entity.User;
+import com.college.paperless.entity.UserSignature;
 import com.college.paperless.repository.UserRepository;
+import com.college.paperless.repository.UserSignatureRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,7 +18,9 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserSignatureRepository userSignatureRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuditLog auditLog;
 
     @Transactional
     public User createOrUpdateUser(String email, String name, String googleId, String profilePicture) {
@@ -88,24 +93,31 @@ public class UserService {
 
 
 
+    @Transactional
+    public User assignRole(User user, User.UserRole role, Long actorId) {
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        auditLog.recordRoleChange(saved.getId(), actorId, role.name());
+        return saved;
+    }
+
     @Transactional
     public User updateSignature(User user, byte[] signatureData, String role) {
+        UserSignature signature = userSignatureRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
         if ("HOD".equalsIgnoreCase(role)) {
-            user.setHodSignatureData(signatureData);
+            signature.setHodSignatureData(signatureData);
             user.setHodSignaturePath("DB_STORED"); // Placeholder
         } else {
-            user.setSignatureData(signatureData);
+            signature.setSignatureData(signatureData);
             user.setSignaturePath("DB_STORED"); // Placeholder
         }
         return userRepository.save(user);
     }
 
     public List<User> getAllMentors() {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getRoles().contains(User.UserRole.MENTOR) ||
-                                user.getRoles().contains(User.UserRole.FACULTY) ||
-                                user.getRoles().contains(User.UserRole.HOD))
-                .toList();
+        return userRepository.findByAnyRole(
+                User.UserRole.MENTOR.mask() | User.UserRole.FACULTY.mask() | User.UserRole.HOD.mask());
     }
 
     public List<User> getMentorsByDepartment(String department) {
@@ -118,39 +130,39 @@ public class UserService {
     }
 
     public Optional<User> getAnyHod() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.HOD);
+        return userRepository.findFirstByRole(User.UserRole.HOD);
     }
 
     public Optional<User> getAnyDean() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.DEAN);
+        return userRepository.findFirstByRole(User.UserRole.DEAN);
     }
 
     public Optional<User> getDeanByDepartment(String department) {
-        return userRepository.findFirstByRolesContainingAndDepartment(User.UserRole.DEAN, department);
+        return userRepository.findFirstByRoleAndDepartment(User.UserRole.DEAN, department);
     }
 
     public Optional<User> getAnyDeanAcademics() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.DEAN_ACADEMICS);
+        return userRepository.findFirstByRole(User.UserRole.DEAN_ACADEMICS);
     }
 
     public Optional<User> getAnyRegistrar() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.REGISTRAR);
+        return userRepository.findFirstByRole(User.UserRole.REGISTRAR);
     }
 
     public Optional<User> getAnyCoe() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.COE);
+        return userRepository.findFirstByRole(User.UserRole.COE);
     }
 
     public Optional<User> getAnyRnd() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.RND);
+        return userRepository.findFirstByRole(User.UserRole.RND);
     }
 
     public Optional<User> getAnyIndustryRelations() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.INDUSTRY_RELATIONS);
+        return userRepository.findFirstByRole(User.UserRole.INDUSTRY_RELATIONS);
     }
 
     public Optional<User> getAnyExamCell() {
-        return userRepository.findFirstByRolesContaining(User.UserRole.EXAM_CELL);
+        return userRepository.findFirstByRole(User.UserRole.EXAM_CELL);
     }
 
     public Optional<User> findByUsername(String username) {
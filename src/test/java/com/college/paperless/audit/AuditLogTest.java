@@ -0,0 +1,158 @@
+package com.college.paperless.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lookups through the sparse index find exactly the matching records, before and after a restart
+class AuditLogTest {
+
+    private static final int RECORDS = 20_000;
+
+    @TempDir
+    Path dir;
+
+    private final List<AuditLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() throws IOException {
+        for (AuditLog log : opened) {
+            log.close();
+        }
+    }
+
+    @Test
+    void lookupsMatchEveryRecordAcrossSegmentsAndRestarts() throws IOException {
+        AuditLog log = open(Duration.ofDays(400));
+        List<AuditRecord> written = writeRandom(log, RECORDS);
+        assertThat(segmentFiles()).hasSizeGreaterThan(3);
+        assertLookups(log, written);
+
+        log.close();
+        opened.remove(log);
+        // Every segment but the last was indexed when it rolled
+        assertThat(indexFiles()).hasSize(segmentFiles().size() - 1);
+        AuditLog reopened = open(Duration.ofDays(400));
+        assertLookups(reopened, written);
+
+        // The reopened active segment keeps taking appends
+        written.addAll(writeRandom(reopened, 2_000));
+        assertLookups(reopened, written);
+    }
+
+    @Test
+    void staleIndexIsIgnored() throws IOException {
+        AuditLog log = open(Duration.ofDays(400));
+        List<AuditRecord> written = writeRandom(log, RECORDS);
+        log.close();
+        opened.remove(log);
+
+        // A sealed segment's index that does not end where its data does, as if written before later appends
+        Files.copy(AuditSegment.indexPath(segmentFiles().get(0)), AuditSegment.indexPath(segmentFiles().get(1)),
+                StandardCopyOption.REPLACE_EXISTING);
+        assertLookups(open(Duration.ofDays(400)), written);
+    }
+
+    @Test
+    void expiredSegmentsAreDeletedButNotTheActiveOne() throws IOException {
+        AuditLog log = open(Duration.ofDays(400));
+        writeRandom(log, RECORDS);
+        int segments = segmentFiles().size();
+        log.expire();
+        assertThat(segmentFiles()).hasSize(segments);
+
+        ReflectionTestUtils.setField(log, "retention", Duration.ZERO);
+        log.expire();
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(indexFiles()).isEmpty();
+
+        // Numbering continues after the deleted segments
+        writeRandom(log, RECORDS);
+        log.recordDownload(5_000L, 500L);
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(withoutTime(log.findByDocument(5_000L)))
+                .containsExactly(new AuditRecord(null, AuditRecord.Type.DOWNLOAD, 5_000L, 500L, null, null));
+    }
+
+    private AuditLog open(Duration retention) throws IOException {
+        AuditLog log = new AuditLog();
+        ReflectionTestUtils.setField(log, "auditDir", dir.toString());
+        ReflectionTestUtils.setField(log, "segmentSize", 256 * 1024);
+        ReflectionTestUtils.setField(log, "retention", retention);
+        log.open();
+        opened.add(log);
+        return log;
+    }
+
+    private static List<AuditRecord> writeRandom(AuditLog log, int count) {
+        SplittableRandom random = new SplittableRandom(count);
+        List<AuditRecord> written = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long documentId = random.nextLong(1, 3_000);
+            long actorId = random.nextLong(1, 200);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    long assigneeId = random.nextLong(1, 200);
+                    log.recordTransition(documentId, actorId, assigneeId, "forward " + i);
+                    written.add(new AuditRecord(null, AuditRecord.Type.TRANSITION, documentId, actorId, assigneeId,
+                            "forward " + i));
+                }
+                case 1 -> {
+                    log.recordDownload(documentId, actorId);
+                    written.add(new AuditRecord(null, AuditRecord.Type.DOWNLOAD, documentId, actorId, null, null));
+                }
+                default -> {
+                    log.recordRoleChange(actorId, null, "MENTOR");
+                    written.add(new AuditRecord(null, AuditRecord.Type.ROLE_CHANGE, null, null, actorId, "MENTOR"));
+                }
+            }
+        }
+        return written;
+    }
+
+    private static void assertLookups(AuditLog log, List<AuditRecord> written) {
+        for (long documentId = 1; documentId < 3_000; documentId += 37) {
+            long id = documentId;
+            assertThat(withoutTime(log.findByDocument(id)))
+                    .containsExactlyElementsOf(written.stream().filter(r -> Long.valueOf(id).equals(r.getDocumentId())).toList());
+        }
+        for (long userId = 1; userId < 200; userId += 7) {
+            Long id = userId;
+            assertThat(withoutTime(log.findByUser(id)))
+                    .containsExactlyElementsOf(written.stream()
+                            .filter(r -> id.equals(r.getActorId()) || id.equals(r.getSubjectUserId())).toList());
+        }
+    }
+
+    private static List<AuditRecord> withoutTime(List<AuditRecord> records) {
+        records.forEach(record -> record.setOccurredAt(null));
+        return records;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        return list(".seg");
+    }
+
+    private List<Path> indexFiles() throws IOException {
+        return list(AuditSegment.INDEX_SUFFIX);
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+}
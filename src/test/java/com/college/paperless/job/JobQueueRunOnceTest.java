@@ -0,0 +1,120 @@
+package com.college.paperless.job;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.Job;
+import com.college.paperless.entity.User;
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.repository.UserRepository;
+import com.college.paperless.service.PdfStampJob;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A stamp job run by a worker that lost its lease, or run again after completing, leaves no second signature
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jobs;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "paperless.jobs.enabled=false",
+        "paperless.scheduler.enabled=false",
+        "paperless.audit.dir=target/test-audit",
+        "management.server.port=0"
+})
+class JobQueueRunOnceTest {
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private PdfStampJob pdfStamps;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void stampAppliesOnceAcrossLeaseTakeoverAndRerun() throws Exception {
+        User approver = userRepository.save(user(User.UserRole.MENTOR));
+        Document document = documentRepository.save(document(userRepository.save(user(User.UserRole.STUDENT))));
+        pdfStamps.enqueue(document, approver, "MENTOR", LocalDateTime.now());
+
+        Job first = claimOne("worker-a");
+        // The first lease expires before the worker finishes, and another worker takes the job over
+        jdbcTemplate.update("UPDATE jobs SET visible_at = ? WHERE id = ?",
+                java.sql.Timestamp.valueOf(first.getVisibleAt().minusHours(1)), first.getId());
+        Job second = claimOne("worker-b");
+        assertThat(second.getAttempts()).isEqualTo(first.getAttempts() + 1);
+
+        assertThat(jobQueue.runOnce(first, pdfStamps)).isFalse();
+        assertThat(dataVersion(document)).isZero();
+
+        assertThat(jobQueue.runOnce(second, pdfStamps)).isTrue();
+        assertThat(dataVersion(document)).isEqualTo(1);
+        byte[] stamped = data(document);
+
+        // Run again, as after a crash between the commit and the worker noticing it
+        assertThat(jobQueue.runOnce(second, pdfStamps)).isFalse();
+        assertThat(dataVersion(document)).isEqualTo(1);
+        assertThat(data(document)).isEqualTo(stamped);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM jobs WHERE id = ?", String.class, second.getId()))
+                .isEqualTo(Job.Status.SUCCEEDED.name());
+    }
+
+    private Job claimOne(String worker) {
+        List<Job> jobs = jobQueue.claim(List.of(PdfStampJob.TYPE), 1, worker);
+        assertThat(jobs).hasSize(1);
+        return jobs.get(0);
+    }
+
+    private int dataVersion(Document document) {
+        return jdbcTemplate.queryForObject("SELECT data_version FROM documents WHERE id = ?", Integer.class,
+                document.getId());
+    }
+
+    private byte[] data(Document document) {
+        return jdbcTemplate.queryForObject("SELECT data FROM documents WHERE id = ?", byte[].class, document.getId());
+    }
+
+    private static Document document(User student) throws Exception {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        try (PDDocument pages = new PDDocument()) {
+            pages.addPage(new PDPage());
+            pages.save(pdf);
+        }
+        Document document = new Document();
+        document.setFileName("request.pdf");
+        document.setFilePath("DB_STORED");
+        document.setFileType("application/pdf");
+        document.setFileSize((long) pdf.size());
+        document.setData(pdf.toByteArray());
+        document.setStudent(student);
+        document.setStatus(Document.DocumentStatus.APPROVED_BY_MENTOR);
+        return document;
+    }
+
+    private static User user(User.UserRole role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID();
+        User user = new User();
+        user.setEmail(name + "@veltech.edu.in");
+        user.setName(name);
+        user.setRole(role);
+        return user;
+    }
+}
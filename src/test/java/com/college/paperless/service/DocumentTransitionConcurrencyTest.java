@@ -0,0 +1,231 @@
+package com.college.paperless.service;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.User;
+import com.college.paperless.event.DocumentTransitionEvent;
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Repeated and concurrent actions on one document: exactly one goes through, whether or not the requests overlap
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transitions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "paperless.jobs.enabled=false",
+        "paperless.scheduler.enabled=false",
+        "paperless.audit.dir=target/test-audit",
+        "management.server.port=0"
+})
+class DocumentTransitionConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @TestConfiguration
+    static class CommittedEvents {
+
+        final Queue<DocumentTransitionEvent> events = new ConcurrentLinkedQueue<>();
+
+        @Bean
+        Queue<DocumentTransitionEvent> committedTransitions() {
+            return events;
+        }
+
+        @TransactionalEventListener
+        void onCommit(DocumentTransitionEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Queue<DocumentTransitionEvent> committedTransitions;
+
+    private User mentor;
+    private User hod;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        User student = userRepository.save(user(User.UserRole.STUDENT));
+        mentor = userRepository.save(user(User.UserRole.MENTOR));
+        hod = userRepository.save(user(User.UserRole.HOD));
+        Document pending = new Document();
+        pending.setFileName("request.pdf");
+        pending.setFilePath("DB_STORED");
+        pending.setFileType("application/pdf");
+        pending.setFileSize(4L);
+        pending.setData(new byte[]{'%', 'P', 'D', 'F'});
+        pending.setStudent(student);
+        pending.setMentor(mentor);
+        pending.setStatus(Document.DocumentStatus.FORWARDED_TO_MENTOR);
+        document = documentRepository.save(pending);
+    }
+
+    @Test
+    void concurrentApprovalsSucceedOnce() throws Exception {
+        List<Throwable> failures = race(() -> documentService.mentorApprove(document.getId(), mentor));
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(ObjectOptimisticLockingFailureException.class));
+        assertThat(statusOf(document)).isEqualTo(Document.DocumentStatus.APPROVED_BY_MENTOR);
+        assertPublishedOnce("mentorApprove");
+        assertThat(stampJobs()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedApprovalIsRejected() {
+        documentService.mentorApprove(document.getId(), mentor);
+
+        // The second click loads the approved row: not a status approval starts from
+        assertThatThrownBy(() -> documentService.mentorApprove(document.getId(), mentor))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertPublishedOnce("mentorApprove");
+        assertThat(stampJobs()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentApproveAndRejectSucceedOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Throwable> failures = race(() -> {
+            if (calls.getAndIncrement() % 2 == 0) {
+                documentService.mentorApprove(document.getId(), mentor);
+            } else {
+                documentService.mentorReject(document.getId(), "Incomplete", mentor);
+            }
+        });
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(ObjectOptimisticLockingFailureException.class));
+        assertThat(committedFor(document)).hasSize(1);
+        assertThat(outboxRows(null)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentForwardsSucceedOnce() throws Exception {
+        documentService.mentorApprove(document.getId(), mentor);
+
+        List<Throwable> failures = race(() -> documentService.forwardToHod(document.getId(), hod, mentor));
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(ObjectOptimisticLockingFailureException.class));
+        assertThat(statusOf(document)).isEqualTo(Document.DocumentStatus.FORWARDED_TO_HOD);
+        assertPublishedOnce("forwardToHod");
+    }
+
+    @Test
+    void transitionsLeaveContentUntouched() {
+        // Transitions load the document without its content; writing it back would null the column
+        documentService.mentorApprove(document.getId(), mentor);
+        documentService.forwardToHod(document.getId(), hod, mentor);
+
+        assertThat(statusOf(document)).isEqualTo(Document.DocumentStatus.FORWARDED_TO_HOD);
+        assertThat(jdbcTemplate.queryForObject("SELECT data FROM documents WHERE id = ?", byte[].class, document.getId()))
+                .isEqualTo(new byte[]{'%', 'P', 'D', 'F'});
+    }
+
+    // Runs the action on every thread at once and returns what each failed run threw
+    private List<Throwable> race(Runnable action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    action.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> run : runs) {
+                try {
+                    run.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertPublishedOnce(String transition) {
+        assertThat(committedFor(document)).extracting(DocumentTransitionEvent::getTransition)
+                .filteredOn(transition::equals)
+                .hasSize(1);
+        assertThat(outboxRows(transition)).isEqualTo(1);
+    }
+
+    private List<DocumentTransitionEvent> committedFor(Document document) {
+        return committedTransitions.stream()
+                .filter(event -> event.getDocumentId().equals(document.getId()))
+                .toList();
+    }
+
+    private long outboxRows(String transition) {
+        return transition == null
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE document_id = ?",
+                        Long.class, document.getId())
+                : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE document_id = ? AND transition = ?",
+                        Long.class, document.getId(), transition);
+    }
+
+    private long stampJobs() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jobs WHERE type = ? AND payload LIKE ?", Long.class,
+                PdfStampJob.TYPE, "%\"documentId\":" + document.getId() + ",%");
+    }
+
+    private Document.DocumentStatus statusOf(Document document) {
+        return Document.DocumentStatus.ofCode(jdbcTemplate.queryForObject(
+                "SELECT status_code FROM documents WHERE id = ?", Byte.class, document.getId()));
+    }
+
+    private static User user(User.UserRole role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID();
+        User user = new User();
+        user.setEmail(name + "@veltech.edu.in");
+        user.setName(name);
+        user.setRole(role);
+        return user;
+    }
+}
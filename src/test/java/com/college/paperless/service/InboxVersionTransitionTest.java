@@ -0,0 +1,124 @@
+package com.college.paperless.service;
+
+import com.college.paperless.entity.Document;
+import com.college.paperless.entity.User;
+import com.college.paperless.repository.DocumentRepository;
+import com.college.paperless.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Users a document leaves must see their inbox change, not a 304 with a document they can no longer act on
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "paperless.jobs.enabled=false",
+        "paperless.scheduler.enabled=false",
+        "paperless.audit.dir=target/test-audit",
+        "management.server.port=0"
+})
+class InboxVersionTransitionTest {
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InboxVersionService inboxVersionService;
+
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        student = userRepository.save(user(User.UserRole.STUDENT));
+    }
+
+    @Test
+    void deanForwardingToAnotherDeanChangesOwnETag() {
+        User dean = userRepository.save(user(User.UserRole.DEAN));
+        User otherDean = userRepository.save(user(User.UserRole.DEAN));
+        Document document = save(Document.DocumentStatus.FORWARDED_TO_DEAN, pending -> pending.setDean(dean));
+        String before = eTag(dean);
+
+        documentService.forwardToDeanFromDean(document.getId(), otherDean, dean);
+
+        assertThat(eTag(dean)).isNotEqualTo(before);
+    }
+
+    @Test
+    void industryRelationsForwardingToHodChangesReplacedHodETag() {
+        User hod = userRepository.save(user(User.UserRole.HOD));
+        User otherHod = userRepository.save(user(User.UserRole.HOD));
+        User industryRelations = userRepository.save(user(User.UserRole.INDUSTRY_RELATIONS));
+        Document document = save(Document.DocumentStatus.FORWARDED_TO_INDUSTRY_RELATIONS, pending -> {
+            pending.setHod(hod);
+            pending.setIndustryRelations(industryRelations);
+        });
+        String before = eTag(hod);
+
+        documentService.forwardFromIndustryRelationsToHod(document.getId(), otherHod, industryRelations);
+
+        assertThat(eTag(hod)).isNotEqualTo(before);
+    }
+
+    @Test
+    void adminDeleteChangesParticipantETags() {
+        User mentor = userRepository.save(user(User.UserRole.MENTOR));
+        User admin = userRepository.save(user(User.UserRole.ADMIN));
+        Document document = save(Document.DocumentStatus.FORWARDED_TO_MENTOR, pending -> pending.setMentor(mentor));
+        String studentBefore = eTag(student);
+        String mentorBefore = eTag(mentor);
+
+        documentService.deleteDocument(document.getId(), admin);
+
+        assertThat(eTag(student)).isNotEqualTo(studentBefore);
+        assertThat(eTag(mentor)).isNotEqualTo(mentorBefore);
+    }
+
+    private Document save(Document.DocumentStatus status, Consumer<Document> assign) {
+        Document pending = new Document();
+        pending.setFileName("request.pdf");
+        pending.setFilePath("DB_STORED");
+        pending.setFileType("application/pdf");
+        pending.setFileSize(4L);
+        pending.setData(new byte[]{'%', 'P', 'D', 'F'});
+        pending.setStudent(student);
+        pending.setStatus(status);
+        assign.accept(pending);
+        return documentRepository.save(pending);
+    }
+
+    private String eTag(User user) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pending-documents");
+        inboxVersionService.checkNotModified(new ServletWebRequest(request, response), user.getId());
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private static User user(User.UserRole role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID();
+        User user = new User();
+        user.setEmail(name + "@veltech.edu.in");
+        user.setName(name);
+        user.setRole(role);
+        return user;
+    }
+}